@@ -2,18 +2,24 @@ package main.astraeus;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.nio.channels.SelectionKey;
-import java.nio.channels.Selector;
+import java.nio.file.Paths;
 import java.nio.channels.ServerSocketChannel;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
-import main.astraeus.game.service.ScheduledService;
-import main.astraeus.game.service.impl.ScheduledNetworkService;
+import main.astraeus.game.GameConstants;
+import main.astraeus.game.model.World;
+import main.astraeus.game.model.entity.mobile.player.Player;
 import main.astraeus.game.service.impl.ScheduledUpdateService;
+import main.astraeus.net.NetworkConstants;
+import main.astraeus.net.NetworkTransport;
+import main.astraeus.net.blocking.BlockingTransport;
+import main.astraeus.net.ondemand.OnDemandService;
 import main.astraeus.net.packet.incoming.IncomingPacketRegistration;
+import main.astraeus.net.reactor.NetworkAcceptor;
+import main.astraeus.net.reactor.NetworkReactorGroup;
 import main.astraeus.utility.startup.ItemDefinitionLoader;
 import main.astraeus.utility.startup.PacketSizeLoader;
 
@@ -67,16 +73,43 @@ public class Bootstrap {
       public Bootstrap bind() throws IOException {
         LOGGER.info("Building network");
         final ServerSocketChannel channel = ServerSocketChannel.open();
-        final Selector selector = Selector.open();
 
-        channel.configureBlocking(false);
-        channel.register(selector, SelectionKey.OP_ACCEPT);
+        channel.bind(new InetSocketAddress(Configuration.ADDRESS, Configuration.PORT));
 
-        final ScheduledService netProcessor = new ScheduledNetworkService(selector, channel);
+        OnDemandService.start(Paths.get(Configuration.CACHE));
 
-        channel.bind(new InetSocketAddress(Configuration.ADDRESS, Configuration.PORT));
+        final Runnable shutdown;
+
+        if (Configuration.TRANSPORT == NetworkTransport.BLOCKING) {
+              final BlockingTransport transport = new BlockingTransport(channel);
+              transport.start();
+              shutdown = transport::shutdown;
+        } else {
+              final NetworkAcceptor acceptor = new NetworkAcceptor(channel, new NetworkReactorGroup(NetworkConstants.NETWORK_WORKERS));
+              acceptor.start();
+              shutdown = acceptor::shutdown;
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+              shutdown.run();
+              OnDemandService.shutdown();
+
+              // the game thread is stopped first, so the players are saved as it left them
+              try {
+                    if (!gameService.stop(GameConstants.SHUTDOWN_TIMEOUT)) {
+                          LOGGER.warning("The game thread did not stop in time, saving the players anyway.");
+                    }
+              } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+              }
 
-        netProcessor.start(0);
+              // players are removed by the game thread, those still in the world are saved here
+              for (Player player : World.getPlayers()) {
+                    if (player != null && player.isRegistered()) {
+                          player.save();
+                    }
+              }
+        }, "NetworkShutdown"));
         
         SERVER_STARTED = true;
         LOGGER.info(String.format("%s has bound to %s on port %d", Configuration.SERVER_NAME, channel.socket().getInetAddress(), channel.socket().getLocalPort()));
@@ -1,6 +1,9 @@
 package main.astraeus;
 
 import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import main.astraeus.net.NetworkTransport;
 
 /**
  * The main configuration for the server.
@@ -24,6 +27,11 @@ public class Configuration {
 	 */
 	public static final int PORT = 43594;
 	
+	/**
+	 * The flag that denotes the secure part of the login block is RSA encrypted by the client.
+	 */
+	public static final boolean RSA_ENABLED = false;
+
 	/**
 	 * The RSA Encryption system.
 	 */
@@ -34,13 +42,33 @@ public class Configuration {
 			"72640252303588278644467876834506654511692882736878142674473705672822320822095174696379303197013981434572187481298130748148385818094460521624198552406940508805602215708418094058951352076283100448576575511642453669107583920561043364042814766866691981132717812444681081534760715694225059124574441435942822149161");
 	
 	
+	/**
+	 * The transport that serves the connections of clients.
+	 */
+	public static final NetworkTransport TRANSPORT = NetworkTransport.SELECTOR;
+
 	/**
 	 * Displays server debug messages.
 	 */
 	public static boolean SERVER_DEBUG = true;
+
+	/**
+	 * Tracks pooled buffers to report the ones that leak or are released twice.
+	 */
+	public static boolean BUFFER_LEAK_DETECTION = false;
+	
+	/**
+	 * The time, in nanoseconds, an incoming packet listener may take before it is logged as slow.
+	 */
+	public static long SLOW_PACKET_THRESHOLD = TimeUnit.MILLISECONDS.toNanos(5);
 	
 	/**
 	 * The path to the data folder.
 	 */
 	public static final String DATA = "./data/";
+
+	/**
+	 * The path to the client's file cache, served by the file server when present.
+	 */
+	public static final String CACHE = DATA + "cache/";
 }
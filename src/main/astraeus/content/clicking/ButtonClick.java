@@ -4,7 +4,6 @@ import main.astraeus.content.dialogue.Dialogue;
 import main.astraeus.content.dialogue.DialogueOption.OptionType;
 import main.astraeus.game.model.entity.mobile.player.Player;
 import main.astraeus.game.model.entity.mobile.player.PlayerRights;
-import main.astraeus.net.packet.outgoing.impl.SendLogout;
 import main.astraeus.net.packet.outgoing.impl.SendMessage;
 
 public class ButtonClick {
@@ -38,7 +37,7 @@ public class ButtonClick {
 
                   // logout
                   case 2458:
-                        player.send(new SendLogout());
+                        player.logout();
                         break;
 
             }
@@ -1,5 +1,7 @@
 package main.astraeus.game;
 
+import main.astraeus.game.service.OverrunPolicy;
+
 /**
  * Class containing game-related constants.
  * 
@@ -12,6 +14,69 @@ public class GameConstants {
        */
       public static final int CYCLE_RATE = 600;
 
+      /**
+       * What the game does with the cycles it fell behind on after a cycle took too long.
+       */
+      public static final OverrunPolicy CYCLE_OVERRUN_POLICY = OverrunPolicy.CATCH_UP;
+
+      /**
+       * The most cycles that are run back to back to catch up, any further behind are dropped.
+       */
+      public static final int MAX_CATCH_UP_TICKS = 5;
+
+      /**
+       * The amount of runs between two reports of how long they took, a minute of game cycles.
+       */
+      public static final int TICK_REPORT_INTERVAL = 100;
+
+      /**
+       * The amount of threads the update packets of the players are encoded on.
+       */
+      public static final int UPDATE_THREADS = Runtime.getRuntime().availableProcessors();
+
+      /**
+       * The amount of players an update worker encodes in one go, larger ranges are split up.
+       */
+      public static final int UPDATE_TASK_THRESHOLD = 4;
+
+      /**
+       * The most players a player can have in view, the update packet can list up to 255.
+       */
+      public static final int LOCAL_PLAYER_LIMIT = 79;
+
+      /**
+       * The most players that can be added to a player's view in a single cycle.
+       */
+      public static final int MAX_NEW_PLAYERS_PER_CYCLE = 25;
+
+      /**
+       * The amount of players in view below which a shrunk viewing distance grows back.
+       */
+      public static final int SPARSE_LOCAL_PLAYERS = 60;
+
+      /**
+       * The smallest distance, in tiles, a crowd can shrink the viewing distance of a player to.
+       */
+      public static final int MINIMUM_VIEWING_DISTANCE = 4;
+
+      /**
+       * The amount of bytes a player update packet is filled up to before new players are left
+       * for a later cycle, well below the 5000 byte buffer the client reads a packet into.
+       */
+      public static final int PLAYER_UPDATE_BYTE_BUDGET = 4500;
+
+      /**
+       * The amount of ticks a player whose connection dropped stays in the world, waiting for the
+       * client to reconnect.
+       */
+      public static final int RECONNECT_GRACE_TICKS = 50;
+
+      /**
+       * The time in milliseconds the server waits for the game thread to finish its cycle when it
+       * shuts down, before the players are saved.
+       */
+      public static final long SHUTDOWN_TIMEOUT = 5000;
+
       /**
        * The number of items in a 474 deob.
        */
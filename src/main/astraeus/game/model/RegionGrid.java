@@ -0,0 +1,363 @@
+package main.astraeus.game.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import main.astraeus.game.model.entity.mobile.MobileEntity;
+
+/**
+ * A spatial index of the mobile entities in the world, grouped by the 8 by 8 chunk and the height
+ * level they stand on. Looking up the entities near a position only visits the few chunks around
+ * it, no matter how many entities the world holds. The chunks are kept in a table keyed by the
+ * primitive chunk key and found entities are put in a list the caller reuses, so a lookup doesn't
+ * allocate.
+ * 
+ * <p>
+ * The grid is changed by the game thread only. The update workers read it while the world holds
+ * still, so it needs no locking of its own.
+ * </p>
+ *
+ * @param <E> The type of entity indexed.
+ */
+public final class RegionGrid<E extends MobileEntity> {
+
+      /**
+       * The amount of bits a coordinate is shifted by to find its chunk.
+       */
+      private static final int CHUNK_SHIFT = 3;
+
+      /**
+       * The entities in every occupied chunk, empty chunks are dropped.
+       */
+      private final ChunkTable<E> chunks = new ChunkTable<>();
+
+      /**
+       * The chunk every indexed entity was last put in.
+       */
+      private final Map<E, Integer> keys = new IdentityHashMap<>();
+
+      /**
+       * Returns the key of the chunk a position is in.
+       * 
+       * @param chunkX The chunk X coordinate.
+       * 
+       * @param chunkY The chunk Y coordinate.
+       * 
+       * @param height The height level.
+       * 
+       * @return The key of the chunk.
+       */
+      private static int key(int chunkX, int chunkY, int height) {
+            return (height & 0x3) << 28 | (chunkX & 0x3FFF) << 14 | chunkY & 0x3FFF;
+      }
+
+      /**
+       * Returns the key of the chunk a position is in.
+       * 
+       * @param position The position of interest.
+       * 
+       * @return The key of the chunk.
+       */
+      private static int key(Position position) {
+            return key(position.getX() >> CHUNK_SHIFT, position.getY() >> CHUNK_SHIFT, position.getHeight());
+      }
+
+      /**
+       * Adds an entity to the chunk it stands in.
+       * 
+       * @param entity The entity to add.
+       */
+      public void add(E entity) {
+            final int key = key(entity.getPosition());
+            final Integer previous = keys.put(entity, key);
+
+            if (previous != null) {
+                  if (previous == key) {
+                        return;
+                  }
+                  removeFrom(previous, entity);
+            }
+            chunks.getOrCreate(key).add(entity);
+      }
+
+      /**
+       * Removes an entity from this grid.
+       * 
+       * @param entity The entity to remove.
+       */
+      public void remove(E entity) {
+            final Integer previous = keys.remove(entity);
+
+            if (previous != null) {
+                  removeFrom(previous, entity);
+            }
+      }
+
+      /**
+       * Moves an entity that is in this grid to the chunk it stands in now, this must be called
+       * whenever the position of an indexed entity changes.
+       * 
+       * @param entity The entity that moved.
+       */
+      public void update(E entity) {
+            final Integer previous = keys.get(entity);
+
+            if (previous != null && previous != key(entity.getPosition())) {
+                  add(entity);
+            }
+      }
+
+      /**
+       * Removes an entity from a chunk, and the chunk once it is empty.
+       * 
+       * @param key The key of the chunk.
+       * 
+       * @param entity The entity to remove.
+       */
+      private void removeFrom(int key, E entity) {
+            final List<E> chunk = chunks.get(key);
+
+            if (chunk == null) {
+                  return;
+            }
+            chunk.remove(entity);
+
+            if (chunk.isEmpty()) {
+                  chunks.remove(key);
+            }
+      }
+
+      /**
+       * Returns the entities within a distance of a position, on the same height level, in a new
+       * list. Lookups made every cycle should reuse a list instead.
+       * 
+       * @param position The position of interest.
+       * 
+       * @param distance The greatest distance on either axis.
+       * 
+       * @return The entities found.
+       */
+      public List<E> getWithin(Position position, int distance) {
+            return getWithin(position, distance, new ArrayList<>());
+      }
+
+      /**
+       * Puts the entities within a distance of a position, on the same height level, in a list.
+       * 
+       * @param position The position of interest.
+       * 
+       * @param distance The greatest distance on either axis.
+       * 
+       * @param found The list the entities are put in, it is cleared first.
+       * 
+       * @return The list of the entities found.
+       */
+      public List<E> getWithin(Position position, int distance, List<E> found) {
+            found.clear();
+
+            final int height = position.getHeight();
+            final int lowX = (position.getX() - distance) >> CHUNK_SHIFT, highX = (position.getX() + distance) >> CHUNK_SHIFT;
+            final int lowY = (position.getY() - distance) >> CHUNK_SHIFT, highY = (position.getY() + distance) >> CHUNK_SHIFT;
+
+            for (int chunkX = lowX; chunkX <= highX; chunkX++) {
+                  for (int chunkY = lowY; chunkY <= highY; chunkY++) {
+                        final List<E> chunk = chunks.get(key(chunkX, chunkY, height));
+
+                        if (chunk == null) {
+                              continue;
+                        }
+
+                        for (E entity : chunk) {
+                              if (entity.getPosition().isWithinDistance(position, distance)) {
+                                    found.add(entity);
+                              }
+                        }
+                  }
+            }
+            return found;
+      }
+
+      /**
+       * Returns the amount of entities in this grid.
+       * 
+       * @return The returned amount.
+       */
+      public int size() {
+            return keys.size();
+      }
+
+      /**
+       * A table of the occupied chunks with open addressing, keyed by the primitive chunk key.
+       * 
+       * @param <E> The type of entity indexed.
+       */
+      private static final class ChunkTable<E> {
+
+            /**
+             * The key of a free slot, chunk keys are never negative.
+             */
+            private static final int FREE = -1;
+
+            /**
+             * The amount of slots the table starts with.
+             */
+            private static final int INITIAL_CAPACITY = 256;
+
+            /**
+             * The key of the chunk in every slot.
+             */
+            private int[] keys;
+
+            /**
+             * The entities of the chunk in every slot.
+             */
+            private List<E>[] chunks;
+
+            /**
+             * The amount of chunks in this table.
+             */
+            private int size;
+
+            /**
+             * Creates a new {@link ChunkTable}.
+             */
+            private ChunkTable() {
+                  allocate(INITIAL_CAPACITY);
+            }
+
+            /**
+             * Returns the entities of a chunk.
+             * 
+             * @param key The key of the chunk.
+             * 
+             * @return The entities, or {@code null} if the chunk is empty.
+             */
+            private List<E> get(int key) {
+                  final int mask = keys.length - 1;
+
+                  for (int slot = home(key, mask);; slot = slot + 1 & mask) {
+                        if (keys[slot] == key) {
+                              return chunks[slot];
+                        }
+                        if (keys[slot] == FREE) {
+                              return null;
+                        }
+                  }
+            }
+
+            /**
+             * Returns the entities of a chunk, adding the chunk if it is empty.
+             * 
+             * @param key The key of the chunk.
+             * 
+             * @return The entities.
+             */
+            private List<E> getOrCreate(int key) {
+                  final List<E> chunk = get(key);
+
+                  if (chunk != null) {
+                        return chunk;
+                  }
+
+                  if ((size + 1) << 1 > keys.length) {
+                        final int[] oldKeys = keys;
+                        final List<E>[] oldChunks = chunks;
+                        allocate(keys.length << 1);
+
+                        for (int slot = 0; slot < oldKeys.length; slot++) {
+                              if (oldKeys[slot] != FREE) {
+                                    put(oldKeys[slot], oldChunks[slot]);
+                              }
+                        }
+                  }
+
+                  final List<E> created = new ArrayList<>();
+                  put(key, created);
+                  size++;
+                  return created;
+            }
+
+            /**
+             * Removes a chunk. The chunks after it are shifted back, so no lookup stops at the slot
+             * it leaves free.
+             * 
+             * @param key The key of the chunk.
+             */
+            private void remove(int key) {
+                  final int mask = keys.length - 1;
+                  int free = home(key, mask);
+
+                  while (keys[free] != key) {
+                        if (keys[free] == FREE) {
+                              return;
+                        }
+                        free = free + 1 & mask;
+                  }
+
+                  for (int slot = free + 1 & mask; keys[slot] != FREE; slot = slot + 1 & mask) {
+                        final int home = home(keys[slot], mask);
+
+                        /*
+                         * A chunk can only move back to a slot between its home and where it is.
+                         */
+                        if ((slot - home & mask) >= (slot - free & mask)) {
+                              keys[free] = keys[slot];
+                              chunks[free] = chunks[slot];
+                              free = slot;
+                        }
+                  }
+
+                  keys[free] = FREE;
+                  chunks[free] = null;
+                  size--;
+            }
+
+            /**
+             * Puts a chunk in the first free slot from its home.
+             * 
+             * @param key The key of the chunk.
+             * 
+             * @param chunk The entities of the chunk.
+             */
+            private void put(int key, List<E> chunk) {
+                  final int mask = keys.length - 1;
+                  int slot = home(key, mask);
+
+                  while (keys[slot] != FREE) {
+                        slot = slot + 1 & mask;
+                  }
+                  keys[slot] = key;
+                  chunks[slot] = chunk;
+            }
+
+            /**
+             * Replaces the slots of this table with free ones.
+             * 
+             * @param capacity The amount of slots, a power of two.
+             */
+            @SuppressWarnings({ "rawtypes", "unchecked" })
+            private void allocate(int capacity) {
+                  keys = new int[capacity];
+                  Arrays.fill(keys, FREE);
+                  chunks = new List[capacity];
+            }
+
+            /**
+             * Returns the slot a chunk is looked for from. Neighbouring chunks differ in their
+             * lowest key bits, the key is mixed so they don't crowd the same slots.
+             * 
+             * @param key The key of the chunk.
+             * 
+             * @param mask The amount of slots, less one.
+             * 
+             * @return The slot.
+             */
+            private static int home(int key, int mask) {
+                  final int hash = key * 0x9E3779B9;
+                  return (hash ^ hash >>> 16) & mask;
+            }
+      }
+}
@@ -1,8 +1,13 @@
 package main.astraeus.game.model;
 
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import main.astraeus.game.model.entity.mobile.MobileEntity;
 import main.astraeus.game.model.entity.mobile.npc.Npc;
 import main.astraeus.game.model.entity.mobile.player.Player;
+import main.astraeus.utility.LongUtils;
 
 public class World {
 
@@ -10,24 +15,150 @@ public class World {
 
       private static final Npc[] npcs = new Npc[3000];
 
+      /**
+       * The player slots that are taken, slot {@code 0} is never used.
+       */
+      private static final BitSet takenPlayerSlots = new BitSet(players.length);
+
+      /**
+       * The npc slots that are taken.
+       */
+      private static final BitSet takenNpcSlots = new BitSet(npcs.length);
+
+      /**
+       * The registered players, keyed by the base-37 encoding of their name. This is read by the
+       * login threads while the game thread changes it.
+       */
+      private static final Map<Long, Player> playersByName = new ConcurrentHashMap<>();
+
+      /**
+       * The registered players in slot order, with no gaps. Rebuilt once the players change.
+       */
+      private static Player[] activePlayers = new Player[0];
+
+      /**
+       * The registered npcs in slot order, with no gaps. Rebuilt once the npcs change.
+       */
+      private static Npc[] activeNpcs = new Npc[0];
+
+      /**
+       * The flag that denotes the active players have to be rebuilt.
+       */
+      private static boolean playersChanged;
+
+      /**
+       * The flag that denotes the active npcs have to be rebuilt.
+       */
+      private static boolean npcsChanged;
+
+      /**
+       * The players in the world, indexed by where they stand.
+       */
+      private static final RegionGrid<Player> playerRegions = new RegionGrid<>();
+
+      /**
+       * The npcs in the world, indexed by where they stand.
+       */
+      private static final RegionGrid<Npc> npcRegions = new RegionGrid<>();
+
+      /**
+       * The amount of game cycles that have started, only advanced by the game thread.
+       */
+      private static volatile long tick;
+
+      /**
+       * Returns the number of the current game cycle, the first being {@code 1}.
+       * 
+       * @return The returned number.
+       */
+      public static long getTick() {
+            return tick;
+      }
+
+      /**
+       * Starts a new game cycle, this must only be called by the game thread.
+       * 
+       * @return The number of the new cycle.
+       */
+      public static long nextTick() {
+            return ++tick;
+      }
+
       /**
        * Registers and adds a player into the game world.
        * 
        * @param Player The player to add.
        */
       public static void registerPlayer(Player player) {
-            int slot = -1;
+            final int slot = findFreeSlot();
 
-            for (int index = 1; index < World.getPlayers().length; index++) {
-                  if ((World.getPlayers()[index] == null)) {
-                        slot = index;
-                        break;
-                  }
+            if (slot == -1) {
+                  throw new IllegalStateException("The world is full.");
             }
             player.setId(-1);
             player.setSlot(slot);
             World.getPlayers()[slot] = player;
             World.getPlayers()[slot].setRegistered(true);
+            takenPlayerSlots.set(slot);
+            playersChanged = true;
+            playersByName.put(player.getDetails().getUsernameHash(), player);
+            playerRegions.add(player);
+      }
+
+      /**
+       * Registers and adds an npc into the game world, in the slot it was created with.
+       * 
+       * @param npc The npc to add.
+       */
+      public static void registerNpc(Npc npc) {
+            World.getNpcs()[npc.getSlot()] = npc;
+            npc.setRegistered(true);
+            takenNpcSlots.set(npc.getSlot());
+            npcsChanged = true;
+            npcRegions.add(npc);
+      }
+
+      /**
+       * Finds the first free npc slot.
+       * 
+       * @return The slot, or {@code -1} if every npc slot is taken.
+       */
+      public static int findFreeNpcSlot() {
+            final int slot = takenNpcSlots.nextClearBit(0);
+            return slot < npcs.length ? slot : -1;
+      }
+
+      /**
+       * Moves a {@link MobileEntity} to the region it stands in now, this must be called whenever
+       * the position of a registered entity changes.
+       * 
+       * @param entity The entity that moved.
+       */
+      public static void relocate(MobileEntity entity) {
+            if (entity.isPlayer()) {
+                  playerRegions.update((Player) entity);
+            } else if (entity.isNpc()) {
+                  npcRegions.update((Npc) entity);
+            }
+      }
+
+      /**
+       * Determines if every player slot is taken.
+       * 
+       * @return {@code true} if no more players can be registered.
+       */
+      public static boolean isFull() {
+            return findFreeSlot() == -1;
+      }
+
+      /**
+       * Finds the first free player slot, slot {@code 0} is never used.
+       * 
+       * @return The slot, or {@code -1} if the world is full.
+       */
+      private static int findFreeSlot() {
+            final int slot = takenPlayerSlots.nextClearBit(1);
+            return slot < players.length ? slot : -1;
       }
 
       /**
@@ -42,9 +173,16 @@ public class World {
             }
 
             if (entity.isPlayer()) {
+                  playerRegions.remove((Player) entity);
+                  playersByName.remove(((Player) entity).getDetails().getUsernameHash(), entity);
+                  takenPlayerSlots.clear(entity.getSlot());
+                  playersChanged = true;
                   World.getPlayers()[entity.getSlot()].setRegistered(false);
                   World.getPlayers()[entity.getSlot()] = null;
             } else if (entity.isNpc()) {
+                  npcRegions.remove((Npc) entity);
+                  takenNpcSlots.clear(entity.getSlot());
+                  npcsChanged = true;
                   World.getNpcs()[entity.getSlot()].setRegistered(false);
                   World.getNpcs()[entity.getSlot()] = null;
             } else {
@@ -61,14 +199,82 @@ public class World {
        * @return Whether the player is registered in the virtual world or not.
        */
       public static final boolean isLoggedIn(String accountName) {
-            for (Player player : World.getPlayers()) {
-                  if (player != null) {
-                        if (player.getUsername().equalsIgnoreCase(accountName)) {
-                              return true;
-                        }
+            return getPlayer(accountName) != null;
+      }
+
+      /**
+       * Finds the player registered under a name. Names are compared the way the client encodes
+       * them, ignoring case and treating spaces and underscores alike. A name no player could log
+       * in with finds nobody, rather than the player whose name it shares an encoding with.
+       * 
+       * @param accountName The name of the player of interest.
+       * 
+       * @return The player, or {@code null} if no player is registered under the name.
+       */
+      public static Player getPlayer(String accountName) {
+            if (accountName == null || !LongUtils.isEncodable(accountName)) {
+                  return null;
+            }
+            return playersByName.get(LongUtils.convertStringToLong(accountName));
+      }
+
+      /**
+       * Returns the registered players in slot order, with no gaps. The array is shared and only
+       * rebuilt once a player registers or leaves, so the players that leave while it is walked
+       * are still in it. This must only be called by the game thread.
+       * 
+       * @return The returned players.
+       */
+      public static Player[] getActivePlayers() {
+            if (playersChanged) {
+                  final Player[] active = new Player[takenPlayerSlots.cardinality()];
+                  int count = 0;
+
+                  for (int slot = takenPlayerSlots.nextSetBit(0); slot >= 0; slot = takenPlayerSlots.nextSetBit(slot + 1)) {
+                        active[count++] = players[slot];
                   }
+                  activePlayers = active;
+                  playersChanged = false;
             }
-            return false;
+            return activePlayers;
+      }
+
+      /**
+       * Returns the registered npcs in slot order, with no gaps. The array is shared and only
+       * rebuilt once an npc registers or leaves. This must only be called by the game thread.
+       * 
+       * @return The returned npcs.
+       */
+      public static Npc[] getActiveNpcs() {
+            if (npcsChanged) {
+                  final Npc[] active = new Npc[takenNpcSlots.cardinality()];
+                  int count = 0;
+
+                  for (int slot = takenNpcSlots.nextSetBit(0); slot >= 0; slot = takenNpcSlots.nextSetBit(slot + 1)) {
+                        active[count++] = npcs[slot];
+                  }
+                  activeNpcs = active;
+                  npcsChanged = false;
+            }
+            return activeNpcs;
+      }
+
+      /**
+       * Returns the players in the world, indexed by where they stand.
+       * 
+       * @return The returned grid.
+       */
+      public static RegionGrid<Player> getPlayerRegions() {
+            return playerRegions;
+      }
+
+      /**
+       * Returns the npcs in the world, indexed by where they stand.
+       * 
+       * @return The returned grid.
+       */
+      public static RegionGrid<Npc> getNpcRegions() {
+            return npcRegions;
       }
 
       /**
@@ -0,0 +1,280 @@
+package main.astraeus.game.model.entity.mobile;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The entities in view of a player, in the order they were added as the client expects them.
+ * Membership is kept in a bitset keyed by slot and the index of every entity in a table keyed by
+ * slot, so checking and removing an entity never walks the list. Removed entities leave a hole
+ * rather than being swapped with the last one, which would reorder what the client expects, and
+ * the hole is closed the next time the list is walked from start to end, which the update does
+ * every cycle.
+ * 
+ * <p>
+ * The list hands out one reused iterator so walking it allocates nothing, it must not be walked
+ * by two loops at once and must not be added to while it is walked. It belongs to the player that
+ * sees the entities and is only touched while that player is updated.
+ * </p>
+ *
+ * @param <E> The type of entity listed.
+ */
+public final class LocalEntityList<E extends MobileEntity> implements Iterable<E> {
+
+	/**
+	 * The slots of the listed entities, one bit per slot.
+	 */
+	private final long[] members;
+
+	/**
+	 * The index of every listed entity in the array, keyed by slot, read unsigned.
+	 */
+	private final byte[] indices;
+
+	/**
+	 * The listed entities in the order they were added, with a {@code null} where one was removed.
+	 */
+	private final MobileEntity[] entities;
+
+	/**
+	 * The index after the last entity in the array.
+	 */
+	private int end;
+
+	/**
+	 * The amount of listed entities.
+	 */
+	private int size;
+
+	/**
+	 * The iterator handed out by this list.
+	 */
+	private final Cursor cursor = new Cursor();
+
+	/**
+	 * Creates a new {@link LocalEntityList}.
+	 * 
+	 * @param slots The amount of slots the entities can be in.
+	 * 
+	 * @param capacity The most entities that can be listed, at most 256 as the client is told the
+	 *        amount of listed entities in a single byte.
+	 */
+	public LocalEntityList(int slots, int capacity) {
+		if (capacity > 256) {
+			throw new IllegalArgumentException("A local entity list holds at most 256 entities.");
+		}
+		this.members = new long[(slots + 63) >> 6];
+		this.indices = new byte[slots];
+		this.entities = new MobileEntity[capacity];
+	}
+
+	/**
+	 * Determines if the entity in a slot is listed.
+	 * 
+	 * @param entity The entity of interest.
+	 * 
+	 * @return {@code true} if it is, {@code false} otherwise.
+	 */
+	public boolean contains(E entity) {
+		final int slot = entity.getSlot();
+		return (members[slot >> 6] & 1L << slot) != 0;
+	}
+
+	/**
+	 * Adds an entity to the end of this list.
+	 * 
+	 * @param entity The entity to add.
+	 * 
+	 * @return {@code true} if it was added, {@code false} if it already is listed or the list is
+	 *         full.
+	 */
+	public boolean add(E entity) {
+		if (contains(entity) || size == entities.length) {
+			return false;
+		}
+
+		if (end == entities.length) {
+			compact();
+		}
+		final int slot = entity.getSlot();
+		members[slot >> 6] |= 1L << slot;
+		place(entity, end++);
+		size++;
+		return true;
+	}
+
+	/**
+	 * Removes an entity from this list.
+	 * 
+	 * @param entity The entity to remove.
+	 * 
+	 * @return {@code true} if it was listed.
+	 */
+	public boolean remove(E entity) {
+		if (!contains(entity)) {
+			return false;
+		}
+		removeAt(indices[entity.getSlot()] & 0xFF);
+		return true;
+	}
+
+	/**
+	 * Puts an entity at an index of the array and records the index under its slot.
+	 * 
+	 * @param entity The entity to put.
+	 * 
+	 * @param index The index of interest.
+	 */
+	private void place(MobileEntity entity, int index) {
+		entities[index] = entity;
+		indices[entity.getSlot()] = (byte) index;
+	}
+
+	/**
+	 * Removes the entity at an index, leaving a hole in its place.
+	 * 
+	 * @param index The index of the entity.
+	 */
+	private void removeAt(int index) {
+		final int slot = entities[index].getSlot();
+		members[slot >> 6] &= ~(1L << slot);
+		entities[index] = null;
+		size--;
+	}
+
+	/**
+	 * Closes the holes left by removed entities, keeping the order of the rest.
+	 */
+	private void compact() {
+		int kept = 0;
+
+		for (int index = 0; index < end; index++) {
+			if (entities[index] != null) {
+				place(entities[index], kept++);
+			}
+		}
+
+		for (int index = kept; index < end; index++) {
+			entities[index] = null;
+		}
+		end = kept;
+	}
+
+	/**
+	 * Removes every entity from this list.
+	 */
+	public void clear() {
+		for (int index = 0; index < end; index++) {
+			if (entities[index] != null) {
+				removeAt(index);
+			}
+		}
+		end = 0;
+	}
+
+	/**
+	 * Returns the amount of listed entities.
+	 * 
+	 * @return The returned amount.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Determines if no entity is listed.
+	 * 
+	 * @return {@code true} if none is, {@code false} otherwise.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the iterator of this list, reset to its start. The same iterator is returned every
+	 * time.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		cursor.reset();
+		return cursor;
+	}
+
+	/**
+	 * The reused iterator of the list, it skips the holes and closes them once it reaches the end.
+	 */
+	private final class Cursor implements Iterator<E> {
+
+		/**
+		 * The index of the next entity to return.
+		 */
+		private int next;
+
+		/**
+		 * The index of the entity returned last, or {@code -1} if it was removed.
+		 */
+		private int last = -1;
+
+		/**
+		 * The index the next kept entity is moved to while the list is walked.
+		 */
+		private int kept;
+
+		/**
+		 * Starts walking the list from its start.
+		 */
+		private void reset() {
+			next = 0;
+			last = -1;
+			kept = 0;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (next < end && entities[next] == null) {
+				next++;
+			}
+
+			if (next < end) {
+				return true;
+			}
+
+			/*
+			 * The whole list was walked, the entities that were kept are packed in the front.
+			 */
+			for (int index = kept; index < end; index++) {
+				entities[index] = null;
+			}
+			end = kept;
+			return false;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public E next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			final MobileEntity entity = entities[next];
+
+			/*
+			 * Moves the entity over the holes before it, the order is kept.
+			 */
+			entities[next] = null;
+			place(entity, kept);
+			last = kept++;
+			next++;
+			return (E) entity;
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			removeAt(last);
+			kept--;
+			last = -1;
+		}
+	}
+}
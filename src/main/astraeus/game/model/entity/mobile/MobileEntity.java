@@ -1,7 +1,5 @@
 package main.astraeus.game.model.entity.mobile;
 
-import java.util.LinkedList;
-import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Queue;
 
@@ -10,6 +8,7 @@ import main.astraeus.game.model.ForceMovement;
 import main.astraeus.game.model.Graphic;
 import main.astraeus.game.model.Hit;
 import main.astraeus.game.model.Position;
+import main.astraeus.game.model.World;
 import main.astraeus.game.model.entity.Entity;
 import main.astraeus.game.model.entity.mobile.npc.Npc;
 import main.astraeus.game.model.entity.mobile.player.Player;
@@ -35,11 +34,6 @@ public abstract class MobileEntity extends Entity {
 	
 	private ForceMovement forceMovement;
 	
-	/**
-	 * The players in the surrounding region of this entity.
-	 */
-	private final List<Player> localPlayers = new LinkedList<Player>();
-	
 	private boolean registered = false;
 	
 	private String forcedChat = "";
@@ -62,6 +56,17 @@ public abstract class MobileEntity extends Entity {
 	public abstract int getCurrentHealth();
 
 	public abstract void dispose();
+
+	/**
+	 * Modifies the current coordinate point of the entity, and its place in the regions of the world.
+	 * 
+	 * @param position The new modification.
+	 */
+	@Override
+	public void setPosition(Position position) {
+		super.setPosition(position);
+		World.relocate(this);
+	}
 	
 	public void startAnimation(final Animation animation) {
 		if (animation != null) {
@@ -172,16 +177,6 @@ public abstract class MobileEntity extends Entity {
 		this.runningDirection = runningDirection;
 	}
 
-	/**
-	 * Returns an ordered collection of players within the same region
-	 * as this entity.
-	 * 
-	 * @return The returned collection.
-	 */
-	public List<Player> getLocalPlayers() {
-		return localPlayers;
-	}
-	
 	/**
 	 * @return the updateFlags
 	 */
@@ -4,6 +4,7 @@ import java.util.Deque;
 import java.util.LinkedList;
 
 import main.astraeus.game.GameConstants;
+import main.astraeus.game.model.World;
 import main.astraeus.game.model.entity.Entity;
 import main.astraeus.game.model.entity.mobile.player.MovementPoint;
 import main.astraeus.game.model.entity.mobile.player.Player;
@@ -149,6 +150,10 @@ public final class Movement {
 
 		((MobileEntity) getEntity()).setRunningDirection(runningPoint == null ? -1 : runningPoint.getDirection());
 
+		if (walkingPoint != null) {
+			World.relocate((MobileEntity) getEntity());
+		}
+
 		int deltaX = ((MobileEntity) getEntity()).getPosition().getX()
 				- ((MobileEntity) getEntity()).getLastPosition().getRegionalX() * 8;
 
@@ -3,13 +3,12 @@ package main.astraeus.game.model.entity.mobile.npc;
 import main.astraeus.game.model.Position;
 import main.astraeus.game.model.World;
 import main.astraeus.game.model.entity.mobile.update.UpdateFlags.UpdateFlag;
-import main.astraeus.utility.IntUtils;
 
 public class Npcs {
 	
 	public static void createNpc(NpcSpawn spawn) {
 		
-		int slot = IntUtils.findFreeIndex(World.getNpcs());
+		int slot = World.findFreeNpcSlot();
 		
 		if (slot == -1) {
 			return;
@@ -18,11 +17,9 @@ public class Npcs {
 		final Npc npc = new Npc(spawn.getId(), slot);
 		npc.setPosition(new Position(3094, 3491));
 		npc.setInitialPosition(new Position(3094, 3491));		
-		npc.setRegistered(true);
-		
 		npc.getUpdateFlags().flag(UpdateFlag.APPEARANCE);
 		
-		World.getNpcs()[slot] = npc;
+		World.registerNpc(npc);
 		
 		System.out.println("spawned an npc.");
 	}
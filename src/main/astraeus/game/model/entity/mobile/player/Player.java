@@ -1,21 +1,30 @@
 package main.astraeus.game.model.entity.mobile.player;
 
 import java.util.EnumMap;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import main.astraeus.content.dialogue.Dialogue;
 import main.astraeus.content.dialogue.DialogueOption;
 import main.astraeus.game.GameConstants;
 import main.astraeus.game.model.ChatMessage;
-import main.astraeus.game.model.entity.EntityEventListener;
+import main.astraeus.game.model.Position;
+import main.astraeus.game.model.World;
+import main.astraeus.game.model.entity.mobile.LocalEntityList;
 import main.astraeus.game.model.entity.mobile.MobileEntity;
 import main.astraeus.game.model.entity.mobile.npc.Npc;
 import main.astraeus.game.model.entity.mobile.player.appearance.Appearance;
 import main.astraeus.game.model.entity.mobile.player.event.file.PlayerReadFileEvent;
 import main.astraeus.game.model.entity.mobile.player.event.file.PlayerSaveFileEvent;
+import main.astraeus.net.NetworkConstants;
 import main.astraeus.net.channel.PlayerChannel;
 import main.astraeus.net.channel.events.WriteChannelEvent;
+import main.astraeus.net.packet.incoming.IncomingPacket;
+import main.astraeus.net.packet.incoming.IncomingPacketQueue;
+import main.astraeus.net.packet.incoming.IncomingPacketRegistration;
 import main.astraeus.net.packet.outgoing.OutgoingPacket;
 import main.astraeus.net.packet.outgoing.impl.SendLogout;
 import main.astraeus.net.packet.outgoing.impl.SendMessage;
@@ -27,17 +36,45 @@ import main.astraeus.utility.StringUtils;
 
 public final class Player extends MobileEntity {
 
+      /**
+       * The single logger for this class.
+       */
+      public static final Logger logger = Logger.getLogger(Player.class.getName());
+
       private ChatMessage chatMessage = new ChatMessage();
 
+      /**
+       * The players in the surrounding region of this player, only players see other players.
+       */
+      private final LocalEntityList<Player> localPlayers = new LocalEntityList<>(World.getPlayers().length, 255);
+
       /**
        * The mobs local to our player.
        */
-      private final List<Npc> localNpcs = new LinkedList<Npc>();
+      private final LocalEntityList<Npc> localNpcs = new LocalEntityList<>(World.getNpcs().length, 255);
 
       /**
-       * The context of this player's channel.
+       * The context of this player's channel, replaced when the player reconnects.
        */
-      private final PlayerChannel context;
+      private volatile PlayerChannel context;
+
+      /**
+       * The packets decoded from this player's channel, waiting for the next game tick.
+       */
+      private final IncomingPacketQueue incomingPackets =
+                  new IncomingPacketQueue(NetworkConstants.INCOMING_QUEUE_CAPACITY);
+
+      /**
+       * The coalescable packets held back while the channel is congested, by opcode and key. They
+       * are not encoded yet, so dropping one doesn't consume the cipher.
+       */
+      private final Map<Long, OutgoingPacket> coalesced = new LinkedHashMap<>();
+
+      /**
+       * The lock guarding the held back packets, the player itself is locked while its update is
+       * encoded.
+       */
+      private final Object coalescedLock = new Object();
 
       /**
        * The pair of cryptography algorithms for encoding and decoding.
@@ -55,10 +92,20 @@ public final class Player extends MobileEntity {
       private DialogueOption dialogueOption;
 
       /**
-       * The flag that denotes a player disconnected.
+       * The flag that denotes a player disconnected and is waiting to reconnect.
        */
       private boolean disconnected;
 
+      /**
+       * The amount of ticks this player has been waiting to reconnect.
+       */
+      private int disconnectedTicks;
+
+      /**
+       * The flag that denotes this player asked to log out, it isn't given a chance to reconnect.
+       */
+      private boolean logoutRequested;
+
       /**
        * The details of this player's account.
        */
@@ -84,6 +131,12 @@ public final class Player extends MobileEntity {
        */
       private boolean debugMode;
 
+      /**
+       * The distance, in tiles, other players are seen from. It shrinks while the area around
+       * this player is crowded and grows back to {@link Position#VIEWING_DISTANCE} once it thins.
+       */
+      private int viewingDistance = Position.VIEWING_DISTANCE;
+
       /**
        * The attributes a player can have.
        */
@@ -136,6 +189,35 @@ public final class Player extends MobileEntity {
             }
       }
 
+      /**
+       * Logs this player out, the client closes its connection once it receives the request.
+       */
+      public void logout() {
+            logoutRequested = true;
+            send(new SendLogout());
+      }
+
+      /**
+       * Handles the loss of this player's connection, called by the game thread every tick. The
+       * player stays in the world for {@link GameConstants#RECONNECT_GRACE_TICKS} ticks so a client
+       * that dropped out can resume its session, a player that logged out is removed at once.
+       */
+      public final void processDisconnection() {
+            if (!context.isClosed()) {
+                  return;
+            }
+
+            if (!disconnected) {
+                  disconnected = true;
+                  disconnectedTicks = 0;
+                  getMovement().resetMovement();
+            }
+
+            if (logoutRequested || disconnectedTicks++ >= GameConstants.RECONNECT_GRACE_TICKS) {
+                  getEventListener().remove(this);
+            }
+      }
+
       /**
        * Sends a message into this players chatbox.
        */
@@ -164,6 +246,23 @@ public final class Player extends MobileEntity {
             getMovement().handleEntityMovement();
       }
 
+      /**
+       * Handles the packets received since the last tick, at most
+       * {@link NetworkConstants#DECODE_LIMIT} of them. The rest wait for the following tick.
+       */
+      public final void processIncomingPackets() {
+            IncomingPacket packet;
+            for (int count = 0; count < NetworkConstants.DECODE_LIMIT
+                        && (packet = incomingPackets.poll()) != null; count++) {
+                  try {
+                        IncomingPacketRegistration.sendToHandler(packet, this);
+                  } catch (RuntimeException exception) {
+                        logger.log(Level.WARNING, String.format("[%s] failed to handle %s", this,
+                                    packet), exception);
+                  }
+            }
+      }
+
       /**
        * Writes a single {@link OutgoingPacket} to the game client.
        * 
@@ -171,9 +270,66 @@ public final class Player extends MobileEntity {
        * 
        */
       public final void send(OutgoingPacket packet) {
+            final int key = packet.getCoalescingKey();
+
+            if (key != -1 && hold(packet, key)) {
+                  return;
+            }
             getContext().execute(new WriteChannelEvent(packet.getHeader(), packet.encode(this)));
       }
 
+      /**
+       * Holds a coalescable packet back while the channel is congested, replacing the packet held
+       * under the same key. Once a packet is held the following ones are held as well, so they
+       * can't overtake it.
+       * 
+       * @param packet The packet of interest.
+       * 
+       * @param key The coalescing key of the packet.
+       * 
+       * @return {@code true} if the packet has been held back.
+       */
+      private boolean hold(OutgoingPacket packet, int key) {
+            synchronized (coalescedLock) {
+                  if (coalesced.isEmpty() && !context.isCongested()) {
+                        return false;
+                  }
+
+                  final OutgoingPacket replaced = coalesced.put((long) packet.getOpcode() << 32 | key, packet);
+
+                  if (replaced != null) {
+                        replaced.getBuilder().release();
+                  }
+                  return true;
+            }
+      }
+
+      /**
+       * Sends the packets held back while the channel was congested, until it is congested again.
+       * A closed channel has its held packets discarded.
+       */
+      public void flushCoalesced() {
+            synchronized (coalescedLock) {
+                  if (coalesced.isEmpty()) {
+                        return;
+                  }
+
+                  if (context.isClosed()) {
+                        coalesced.values().forEach(packet -> packet.getBuilder().release());
+                        coalesced.clear();
+                        return;
+                  }
+
+                  final Iterator<OutgoingPacket> iterator = coalesced.values().iterator();
+
+                  while (iterator.hasNext() && !context.isCongested()) {
+                        final OutgoingPacket packet = iterator.next();
+                        iterator.remove();
+                        context.execute(new WriteChannelEvent(packet.getHeader(), packet.encode(this)));
+                  }
+            }
+      }
+
       /**
        * Executes a writable event.
        * 
@@ -214,12 +370,21 @@ public final class Player extends MobileEntity {
             return executeReadableEvent(new PlayerReadFileEvent(this));
       }
 
+      /**
+       * Returns an ordered collection of players within the same region as this player.
+       * 
+       * @return The returned collection.
+       */
+      public final LocalEntityList<Player> getLocalPlayers() {
+            return localPlayers;
+      }
+
       /**
        * Returns the collection of local mobs.
        * 
        * @return The returned collection.
        */
-      public final List<Npc> getLocalNpcs() {
+      public final LocalEntityList<Npc> getLocalNpcs() {
             return localNpcs;
       }
 
@@ -272,6 +437,24 @@ public final class Player extends MobileEntity {
             return context;
       }
 
+      /**
+       * Modifies the context of this player's channel.
+       * 
+       * @param context The new modification.
+       */
+      public void setContext(PlayerChannel context) {
+            this.context = context;
+      }
+
+      /**
+       * Returns an instance of the packets waiting for the next game tick.
+       * 
+       * @return The returned instance.
+       */
+      public IncomingPacketQueue getIncomingPackets() {
+            return incomingPackets;
+      }
+
       /**
        * Returns an instance of the pair of cryptography algorithms for encoding and decoding.
        *
@@ -327,7 +510,7 @@ public final class Player extends MobileEntity {
       }
 
       @Override
-      public EntityEventListener<Player> getEventListener() {
+      public PlayerEventListener getEventListener() {
             return new PlayerEventListener();
       }
 
@@ -389,6 +572,20 @@ public final class Player extends MobileEntity {
             this.disconnected = disconnected;
       }
 
+      /**
+       * @return the logoutRequested
+       */
+      public boolean isLogoutRequested() {
+            return logoutRequested;
+      }
+
+      /**
+       * @param logoutRequested the logoutRequested to set
+       */
+      public void setLogoutRequested(boolean logoutRequested) {
+            this.logoutRequested = logoutRequested;
+      }
+
       /**
        * @return the chatMessage
        */
@@ -417,6 +614,24 @@ public final class Player extends MobileEntity {
             this.debugMode = debugMode;
       }  
 
+      /**
+       * Returns the distance, in tiles, other players are seen from.
+       * 
+       * @return The returned distance.
+       */
+      public int getViewingDistance() {
+            return viewingDistance;
+      }
+
+      /**
+       * Modifies the distance, in tiles, other players are seen from.
+       * 
+       * @param viewingDistance The new modification.
+       */
+      public void setViewingDistance(int viewingDistance) {
+            this.viewingDistance = viewingDistance;
+      }
+
       @Override
       public Type entityType() {
             return Type.PLAYER;
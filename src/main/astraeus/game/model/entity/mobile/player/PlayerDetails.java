@@ -1,5 +1,7 @@
 package main.astraeus.game.model.entity.mobile.player;
 
+import main.astraeus.utility.LongUtils;
+
 public final class PlayerDetails {
 
       /**
@@ -19,6 +21,11 @@ public final class PlayerDetails {
        */
       private String username;
 
+      /**
+       * The base-37 encoding of the account name, as the client sends it.
+       */
+      private transient long usernameHash;
+
       /**
        * The password of the player's account.
        */
@@ -64,6 +71,16 @@ public final class PlayerDetails {
        */
       public void setUsername(String username) {
             this.username = username;
+            this.usernameHash = username == null || username.isEmpty() ? 0 : LongUtils.convertStringToLong(username);
+      }
+
+      /**
+       * Returns the base-37 encoding of the player's account name.
+       * 
+       * @return The returned encoding.
+       */
+      public long getUsernameHash() {
+            return usernameHash;
       }
 
       /**
@@ -22,7 +22,6 @@ public final class PlayerEventListener extends EntityEventListener<Player> {
       public void add(Player player) {
             World.registerPlayer(player);
 
-            player.setPosition(player.load() ? player.getPosition() : PlayerConstants.START_COORDINATES);
             player.setRegionChange(true);
             player.getUpdateFlags().flag(UpdateFlag.APPEARANCE);
             player.send(new SendMessage(PlayerConstants.WELCOME_MESSAGE));
@@ -37,11 +36,30 @@ public final class PlayerEventListener extends EntityEventListener<Player> {
             player.getMovement().resetMovement();
             player.save();
             player.send(new SendLogout());
+            player.flushCoalesced();
 
             World.deregister(player);
             logger.log(Level.INFO, String.format("[%s] has left the server.", player.toString()));
       }
 
+      /**
+       * Resumes the session of a player that reconnected within its grace period. The player
+       * never left the world, so nothing is loaded or saved, but the client starts over with
+       * empty entity lists and needs the whole scene again.
+       * 
+       * @param player The player that reconnected.
+       */
+      public void reconnect(Player player) {
+            player.setDisconnected(false);
+            player.getLocalPlayers().clear();
+            player.getLocalNpcs().clear();
+
+            player.setRegionChange(true);
+            player.getUpdateFlags().flag(UpdateFlag.APPEARANCE);
+            player.sendTabs();
+            logger.log(Level.INFO, String.format("[%s] has reconnected.", player.toString()));
+      }
+
       @Override
       public void update(Player player) {
             player.send(new SendPlayerUpdate());
@@ -1,5 +1,6 @@
 package main.astraeus.game.model.entity.mobile.update;
 
+import java.util.Arrays;
 import java.util.BitSet;
 
 /**
@@ -14,6 +15,12 @@ public class UpdateFlags {
 	 */
 	private BitSet flags = new BitSet();
 
+	/**
+	 * The update blocks encoded this cycle, one for every {@link BlockVariant}. They are encoded
+	 * for the first observer and copied for every other, until the flags change.
+	 */
+	private final byte[][] encoded = new byte[BlockVariant.values().length][];
+
 	/**
 	 * The enumerated types of updates that can be updated.
 	 */
@@ -31,6 +38,27 @@ public class UpdateFlags {
 		FORCE_MOVEMENT;		
 	}
 
+	/**
+	 * The enumerated ways the update blocks of an entity are encoded, depending on who observes it.
+	 */
+	public enum BlockVariant {
+
+		/**
+		 * An observer that already has the entity in view.
+		 */
+		OBSERVER,
+
+		/**
+		 * The player itself, its own chat is left out.
+		 */
+		SELF,
+
+		/**
+		 * An observer that has just added the entity, the appearance is always included.
+		 */
+		NEW_OBSERVER;
+	}
+
 	/**
 	 * Checks if any flags are {@code true} in the bitset.
 	 * 
@@ -45,6 +73,7 @@ public class UpdateFlags {
 	 */
 	public void flag(UpdateFlag flag) {
 		flags.set(flag.ordinal(), true);
+		Arrays.fill(encoded, null);
 	}
 	
 	/**
@@ -52,6 +81,7 @@ public class UpdateFlags {
 	 */
 	public void unflag(UpdateFlag flag) {
 		flags.set(flag.ordinal(), false);
+		Arrays.fill(encoded, null);
 	}
 
 	/**
@@ -67,10 +97,36 @@ public class UpdateFlags {
 	}
 
 	/**
-	 * Sets all flags in the bitset to false. 
+	 * Returns the update blocks encoded this cycle for a variant.
+	 * 
+	 * @param variant
+	 * 		The variant of interest.
+	 * 
+	 * @return The encoded blocks, or {@code null} if they haven't been encoded yet.
+	 */
+	public byte[] getEncoded(BlockVariant variant) {
+		return encoded[variant.ordinal()];
+	}
+
+	/**
+	 * Modifies the update blocks encoded this cycle for a variant.
+	 * 
+	 * @param variant
+	 * 		The variant of interest.
+	 * 
+	 * @param block
+	 * 		The new modification.
+	 */
+	public void setEncoded(BlockVariant variant, byte[] block) {
+		encoded[variant.ordinal()] = block;
+	}
+
+	/**
+	 * Sets all flags in the bitset to false and forgets the blocks encoded for them.
 	 */
 	public void clear() {
 		flags.clear();
+		Arrays.fill(encoded, null);
 	}
 	
 }
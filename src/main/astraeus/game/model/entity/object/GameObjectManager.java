@@ -41,15 +41,8 @@ public final class GameObjectManager {
 	 */
 	public final void createObject(GameObject object) {
 
-		for (Player player : World.getPlayers()) {
-			
-			if (player == null || !player.isRegistered()) {
-				continue;
-			}
-
-			if (player.getPosition().isWithinDistance(object.getPosition(), 30)) {
-				player.send(new SendCreateObject(object));
-			}
+		for (Player player : World.getPlayerRegions().getWithin(object.getPosition(), 30)) {
+			player.send(new SendCreateObject(object));
 		}
 
 		objects.add(object);
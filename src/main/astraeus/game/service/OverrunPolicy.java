@@ -0,0 +1,19 @@
+package main.astraeus.game.service;
+
+/**
+ * What a {@link ScheduledService} does with the ticks whose time passed while an earlier tick was
+ * still running.
+ */
+public enum OverrunPolicy {
+
+      /**
+       * Runs the missed ticks back to back until the service is on schedule again, a few at most.
+       */
+      CATCH_UP,
+
+      /**
+       * Drops the missed ticks, the late tick runs straight away and the ones after it keep to the
+       * original schedule.
+       */
+      SKIP
+}
@@ -1,21 +1,28 @@
 package main.astraeus.game.service;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import main.astraeus.game.GameConstants;
 
 /**
  * A simple processor for scheduling major logical procedures. This class should not be used for
  * execution of minor periodical processes.
+ * 
+ * <p>
+ * Every processor runs on a thread of its own, at a fixed rate that is kept against the clock
+ * rather than the end of the previous run. The duration of every run is recorded, a run that takes
+ * longer than the rate is reported and the runs it delayed are handled by the {@link OverrunPolicy}.
+ * </p>
  */
 public abstract class ScheduledService implements Runnable {
 
       /**
-       * Handles the creation, destruction, and periodical execution of threads within a fixed
-       * concurrent environment.
+       * The single logger for this class.
        */
-      private final ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor();
+      private static final Logger logger = Logger.getLogger(ScheduledService.class.getName());
 
       /**
        * Executes the implementation's logical commands.
@@ -23,22 +30,63 @@ public abstract class ScheduledService implements Runnable {
       public abstract void execute();
 
       /**
-       * A delayed result-bearing action that can be cancelled.
+       * The name of the thread this processor runs on.
        */
-      private ScheduledFuture<?> future;
+      private final String name;
 
       /**
        * The rate in milliseconds at which the thread will be executed.
        */
       private final int rate;
 
+      /**
+       * What is done with the runs that were delayed by one that took too long.
+       */
+      private final OverrunPolicy policy;
+
+      /**
+       * The durations of the runs since the last report.
+       */
+      private final TickHistogram durations = new TickHistogram();
+
+      /**
+       * The thread this processor runs on.
+       */
+      private Thread thread;
+
+      /**
+       * The delay in milliseconds the processor waits before it starts.
+       */
+      private int delay;
+
+      /**
+       * The flag that denotes this processor is running.
+       */
+      private volatile boolean running;
+
+      /**
+       * The amount of runs that took longer than the rate since the last report.
+       */
+      private int overruns;
+
+      /**
+       * The amount of runs that were dropped since the last report.
+       */
+      private long skipped;
+
       /**
        * The overloaded class constructor used for instantiation of this class file.
        * 
+       * @param name The name of the thread this processor runs on.
+       * 
        * @param rate The rate in milliseconds at which the thread will be executed.
+       * 
+       * @param policy What is done with the runs that were delayed by one that took too long.
        */
-      public ScheduledService(int rate) {
+      public ScheduledService(String name, int rate, OverrunPolicy policy) {
+            this.name = name;
             this.rate = rate;
+            this.policy = policy;
       }
 
       /**
@@ -47,7 +95,27 @@ public abstract class ScheduledService implements Runnable {
        * @param interrupt If that task should be interrupted in the attempt to cancel it.
        */
       public void cancel(boolean interrupt) {
-            future.cancel(interrupt);
+            running = false;
+            LockSupport.unpark(thread);
+
+            if (interrupt) {
+                  thread.interrupt();
+            }
+      }
+
+      /**
+       * Stops this processor and waits for the run in progress to finish.
+       * 
+       * @param timeout The time in milliseconds to wait for the thread to finish.
+       * 
+       * @return {@code true} if the thread finished in time.
+       * 
+       * @throws InterruptedException If the calling thread was interrupted while waiting.
+       */
+      public boolean stop(long timeout) throws InterruptedException {
+            cancel(false);
+            thread.join(timeout);
+            return !thread.isAlive();
       }
 
       /**
@@ -56,20 +124,89 @@ public abstract class ScheduledService implements Runnable {
        * @param delay The delay in milliseconds the processor will wait before it starts.
        */
       public void start(int delay) {
-            setFuture(service.scheduleAtFixedRate(this, delay, rate, TimeUnit.MILLISECONDS));
+            this.delay = delay;
+            running = true;
+            thread = new Thread(this, name);
+            thread.start();
+      }
+
+      @Override
+      public void run() {
+            final long period = TimeUnit.MILLISECONDS.toNanos(rate);
+            long next = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+
+            while (running) {
+                  long remaining;
+                  while ((remaining = next - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(remaining);
+
+                        if (!running) {
+                              return;
+                        }
+                  }
+
+                  final long start = System.nanoTime();
+
+                  try {
+                        execute();
+                  } catch (RuntimeException exception) {
+                        logger.log(Level.SEVERE, String.format("%s has failed a run.", name), exception);
+                  }
+
+                  final long elapsed = System.nanoTime() - start;
+                  durations.record(elapsed);
+                  next += period;
+
+                  if (elapsed > period) {
+                        overruns++;
+                        logger.warning(String.format("%s took %.2f ms, %.2f ms over its rate.%s", name, elapsed / 1e6, (elapsed - period) / 1e6, describe()));
+                  }
+
+                  next = realign(next, period);
+
+                  if (durations.getCount() >= GameConstants.TICK_REPORT_INTERVAL) {
+                        report();
+                  }
+            }
       }
 
       /**
-       * Modifies the delayed result-bearing action.
+       * Moves the start of the next run forward past the runs that will not be caught up with.
+       * 
+       * @param next The time, in nanoseconds, the next run was due.
        * 
-       * @param future The new modification.
+       * @param period The rate, in nanoseconds.
+       * 
+       * @return The time, in nanoseconds, the next run will start.
        */
-      public void setFuture(ScheduledFuture<?> future) {
-            this.future = future;
+      private long realign(long next, long period) {
+            final long missed = (System.nanoTime() - next) / period;
+
+            if (missed <= 0) {
+                  return next;
+            }
+
+            final long dropped = policy == OverrunPolicy.SKIP ? missed : Math.max(0, missed - GameConstants.MAX_CATCH_UP_TICKS);
+            skipped += dropped;
+            return next + dropped * period;
       }
 
-      @Override
-      public void run() {
-            execute();
+      /**
+       * Logs the durations and overruns of the runs since the last report and starts over.
+       */
+      protected void report() {
+            logger.info(String.format("%s ran %d times: %s, %d overran, %d skipped.", name, durations.getCount(), durations, overruns, skipped));
+            durations.reset();
+            overruns = 0;
+            skipped = 0;
+      }
+
+      /**
+       * Describes the run that just finished, appended to the report of a run that took too long.
+       * 
+       * @return The description, empty by default.
+       */
+      protected String describe() {
+            return "";
       }
 }
@@ -0,0 +1,160 @@
+package main.astraeus.game.service;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of durations with a fixed relative precision, values are counted in buckets whose
+ * width grows with their magnitude so that a few kilobytes cover anything from a microsecond to
+ * hours. This is not thread-safe, it is meant to be recorded and read by the thread that runs the
+ * ticks.
+ */
+public final class TickHistogram {
+
+      /**
+       * The amount of bits of precision kept for every value.
+       */
+      private static final int PRECISION = 5;
+
+      /**
+       * The amount of buckets per power of two.
+       */
+      private static final int SUB_BUCKETS = 1 << PRECISION;
+
+      /**
+       * The amount of powers of two covered, values beyond them are counted in the last bucket.
+       */
+      private static final int MAGNITUDES = 32;
+
+      /**
+       * The amount of values counted in each bucket.
+       */
+      private final long[] counts = new long[(MAGNITUDES + 1) * SUB_BUCKETS];
+
+      /**
+       * The amount of recorded values.
+       */
+      private long count;
+
+      /**
+       * The sum of the recorded values, in microseconds.
+       */
+      private long total;
+
+      /**
+       * The highest recorded value, in microseconds.
+       */
+      private long max;
+
+      /**
+       * Records a duration.
+       * 
+       * @param nanos The duration, in nanoseconds.
+       */
+      public void record(long nanos) {
+            final long micros = Math.max(0, nanos / 1000);
+            counts[Math.min(indexOf(micros), counts.length - 1)]++;
+            count++;
+            total += micros;
+            max = Math.max(max, micros);
+      }
+
+      /**
+       * Returns the value below which a fraction of the recorded values fall, accurate to a few
+       * percent.
+       * 
+       * @param percentile The fraction, between {@code 0} and {@code 100}.
+       * 
+       * @return The value, in milliseconds.
+       */
+      public double getPercentile(double percentile) {
+            if (count == 0) {
+                  return 0;
+            }
+
+            final long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+            long seen = 0;
+
+            for (int index = 0; index < counts.length; index++) {
+                  seen += counts[index];
+
+                  if (seen >= rank) {
+                        return Math.min(highestOf(index), max) / 1000D;
+                  }
+            }
+            return max / 1000D;
+      }
+
+      /**
+       * Returns the mean of the recorded values.
+       * 
+       * @return The mean, in milliseconds.
+       */
+      public double getMean() {
+            return count == 0 ? 0 : total / (double) count / 1000D;
+      }
+
+      /**
+       * Returns the highest recorded value.
+       * 
+       * @return The value, in milliseconds.
+       */
+      public double getMax() {
+            return max / 1000D;
+      }
+
+      /**
+       * Returns the amount of recorded values.
+       * 
+       * @return The returned amount.
+       */
+      public long getCount() {
+            return count;
+      }
+
+      /**
+       * Forgets every recorded value.
+       */
+      public void reset() {
+            Arrays.fill(counts, 0);
+            count = 0;
+            total = 0;
+            max = 0;
+      }
+
+      /**
+       * Finds the bucket a value is counted in. Values below two powers of the precision have a
+       * bucket each, above that the value is shifted right until only the precision is left.
+       * 
+       * @param value The value, in microseconds.
+       * 
+       * @return The index of the bucket.
+       */
+      private static int indexOf(long value) {
+            if (value < SUB_BUCKETS << 1) {
+                  return (int) value;
+            }
+            final int shift = 63 - Long.numberOfLeadingZeros(value) - PRECISION;
+            return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+      }
+
+      /**
+       * Returns the highest value counted in a bucket.
+       * 
+       * @param index The index of the bucket.
+       * 
+       * @return The value, in microseconds.
+       */
+      private static long highestOf(int index) {
+            if (index < SUB_BUCKETS << 1) {
+                  return index;
+            }
+            final int shift = index / SUB_BUCKETS - 1;
+            final long sub = index % SUB_BUCKETS + SUB_BUCKETS;
+            return ((sub + 1) << shift) - 1;
+      }
+
+      @Override
+      public String toString() {
+            return String.format("mean %.2f ms, p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms", getMean(), getPercentile(50), getPercentile(99), getPercentile(99.9), getMax());
+      }
+}
@@ -1,63 +1,208 @@
 package main.astraeus.game.service.impl;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.logging.Logger;
+
 import main.astraeus.game.GameConstants;
 import main.astraeus.game.model.World;
 import main.astraeus.game.model.entity.mobile.npc.Npc;
 import main.astraeus.game.model.entity.mobile.player.Player;
 import main.astraeus.game.service.ScheduledService;
+import main.astraeus.game.service.TickHistogram;
+import main.astraeus.net.NetworkConstants;
+import main.astraeus.net.packet.incoming.IncomingPacketRegistration;
+import main.astraeus.net.packet.outgoing.impl.SendPlayerUpdate;
+import main.astraeus.net.protocol.codec.login.LoginPipeline;
 
 public final class ScheduledUpdateService extends ScheduledService {
 
+      /**
+       * The single logger for this class.
+       */
+      private static final Logger logger = Logger.getLogger(ScheduledUpdateService.class.getName());
+
+      /**
+       * The phases of a cycle, cached to avoid a copy every cycle.
+       */
+      private static final UpdatePhase[] PHASES = UpdatePhase.values();
+
+      /**
+       * The durations of every phase since the last report.
+       */
+      private final TickHistogram[] phaseDurations = new TickHistogram[PHASES.length];
+
+      /**
+       * The durations, in nanoseconds, of every phase of the last cycle.
+       */
+      private final long[] lastPhase = new long[PHASES.length];
+
+      /**
+       * The time, in nanoseconds, the current phase started.
+       */
+      private long phaseStart;
+
+      /**
+       * The work-stealing pool the update packets are encoded on.
+       */
+      private final ForkJoinPool updatePool = new ForkJoinPool(GameConstants.UPDATE_THREADS, pool -> {
+            final ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setName("UpdateWorker-" + worker.getPoolIndex());
+            return worker;
+      }, null, false);
+
+      /**
+       * The players that are updated this cycle, in the front of the array.
+       */
+      private final Player[] updating = new Player[World.getPlayers().length];
+
       /**
        * The overloaded class constructor used for instantiation of this class file.
        */
       public ScheduledUpdateService() {
-            super(GameConstants.CYCLE_RATE);
+            super("GameThread", GameConstants.CYCLE_RATE, GameConstants.CYCLE_OVERRUN_POLICY);
+
+            for (int index = 0; index < phaseDurations.length; index++) {
+                  phaseDurations[index] = new TickHistogram();
+            }
+      }
+
+      /**
+       * Ends a phase of the current cycle and records how long it took.
+       * 
+       * @param phase The phase that ended.
+       */
+      private void endPhase(UpdatePhase phase) {
+            final long now = System.nanoTime();
+            lastPhase[phase.ordinal()] = now - phaseStart;
+            phaseDurations[phase.ordinal()].record(now - phaseStart);
+            phaseStart = now;
+      }
+
+      @Override
+      protected String describe() {
+            final StringBuilder builder = new StringBuilder(" Cycle ").append(World.getTick()).append(':');
+
+            for (UpdatePhase phase : PHASES) {
+                  builder.append(String.format(" %s %.2f ms", phase, lastPhase[phase.ordinal()] / 1e6));
+            }
+            return builder.toString();
+      }
+
+      @Override
+      protected void report() {
+            super.report();
+
+            for (UpdatePhase phase : PHASES) {
+                  logger.info(String.format("  %s: %s", phase, phaseDurations[phase.ordinal()]));
+                  phaseDurations[phase.ordinal()].reset();
+            }
+
+            final long packets = SendPlayerUpdate.getPacketCount();
+
+            logger.info(String.format("  Player updates: %d packets, mean %d bytes, max %d bytes, %d over budget, %d deferring additions",
+                        packets, packets == 0 ? 0 : SendPlayerUpdate.getPacketBytes() / packets,
+                        SendPlayerUpdate.getMaximumPacketBytes(),
+                        SendPlayerUpdate.getOverBudgetPackets(),
+                        SendPlayerUpdate.getDeferredPackets()));
+            SendPlayerUpdate.resetMetrics();
+
+            for (int opcode = 0; opcode < NetworkConstants.PACKETS.length; opcode++) {
+                  final long handled = IncomingPacketRegistration.getInvocations(opcode);
+                  final long unknown = IncomingPacketRegistration.getUnknown(opcode);
+                  final long rejected = IncomingPacketRegistration.getRejected(opcode);
+
+                  if (handled == 0 && unknown == 0 && rejected == 0) {
+                        continue;
+                  }
+                  logger.info(String.format("  Packet %d: %d handled, mean %.2f ms, max %.2f ms, %d unknown, %d rejected",
+                              opcode, handled,
+                              handled == 0 ? 0 : IncomingPacketRegistration.getTotalNanos(opcode) / handled / 1_000_000.0,
+                              IncomingPacketRegistration.getMaximumNanos(opcode) / 1_000_000.0, unknown, rejected));
+            }
+            IncomingPacketRegistration.resetMetrics();
       }
 
       @Override
       public void execute() {
+            World.nextTick();
+            phaseStart = System.nanoTime();
+
+            // logins
+            LoginPipeline.process();
+            endPhase(UpdatePhase.LOGIN);
+
+            // lost connections
+            for (final Player player : World.getActivePlayers()) {
+                  if (!player.isRegistered()) {
+                        continue;
+                  }
+                  player.processDisconnection();
+            }
+            endPhase(UpdatePhase.DISCONNECTION);
+
+            // incoming packets
+            for (final Player player : World.getActivePlayers()) {
+                  if (!player.isRegistered()) {
+                        continue;
+                  }
+                  player.processIncomingPackets();
+            }
+            endPhase(UpdatePhase.INCOMING);
+
             // player movement
-            for (final Player player : World.getPlayers()) {
-                  if (player == null || !player.isRegistered()) {
+            for (final Player player : World.getActivePlayers()) {
+                  if (!player.isRegistered()) {
                         continue;
                   }
                   player.prepare();
             }
 
-            for (final Npc npc : World.getNpcs()) {
-                  if (npc == null || !npc.isRegistered()) {
+            for (final Npc npc : World.getActiveNpcs()) {
+                  if (!npc.isRegistered()) {
                         continue;
                   }
 
                   npc.prepare();
             }
+            endPhase(UpdatePhase.MOVEMENT);
 
-            // update player and npc both in parallel
-            for (final Player player : World.getPlayers()) {
-                  if (player == null || !player.isRegistered()) {
+            // update players in parallel, the world holds still until every update is sent
+            int count = 0;
+            for (final Player player : World.getActivePlayers()) {
+                  if (!player.isRegistered() || player.isDisconnected()) {
                         continue;
                   }
-                  player.getEventListener().update(player);
+                  updating[count++] = player;
             }
+            updatePool.invoke(new UpdateTask(updating, 0, count));
+            Arrays.fill(updating, 0, count, null);
+            endPhase(UpdatePhase.UPDATE);
 
             // clear player update flags
-            for (final Player player : World.getPlayers()) {
-                  if (player == null || !player.isRegistered()) {
+            for (final Player player : World.getActivePlayers()) {
+                  if (!player.isRegistered()) {
                         continue;
                   }
                   player.getUpdateFlags().clear();
                   player.setRegionChange(false);
+
+                  // the text held back while the channel was congested
+                  player.flushCoalesced();
+
+                  // the tick's packets are out, the keystream for the next tick is taken in one pass
+                  player.getIsaacRandomPair().getDecoder().refill();
             }
 
-            for (final Npc npc : World.getNpcs()) {
-                  if (npc == null || !npc.isRegistered()) {
+            for (final Npc npc : World.getActiveNpcs()) {
+                  if (!npc.isRegistered()) {
                         continue;
                   }
 
                   npc.getUpdateFlags().clear();
             }
-
+            endPhase(UpdatePhase.CLEAR);
       }
 
 }
@@ -0,0 +1,48 @@
+package main.astraeus.game.service.impl;
+
+/**
+ * The phases of a game cycle, in the order they run, timed separately by the
+ * {@link ScheduledUpdateService}.
+ */
+public enum UpdatePhase {
+
+      /**
+       * The logins that finished since the last cycle are registered.
+       */
+      LOGIN,
+
+      /**
+       * The players whose connection dropped are held or removed.
+       */
+      DISCONNECTION,
+
+      /**
+       * The packets received since the last cycle are handled.
+       */
+      INCOMING,
+
+      /**
+       * Players and npcs take their steps.
+       */
+      MOVEMENT,
+
+      /**
+       * The update packets of every player are encoded and sent.
+       */
+      UPDATE,
+
+      /**
+       * The update flags are cleared and the held back packets are sent.
+       */
+      CLEAR;
+
+      /**
+       * Returns the name of this phase as it is logged.
+       * 
+       * @return The returned name.
+       */
+      @Override
+      public String toString() {
+            return name().toLowerCase();
+      }
+}
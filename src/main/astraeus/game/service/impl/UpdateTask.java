@@ -0,0 +1,87 @@
+package main.astraeus.game.service.impl;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import main.astraeus.game.GameConstants;
+import main.astraeus.game.model.entity.mobile.player.Player;
+
+/**
+ * Encodes and sends the update packets of a range of players, split in halves until the ranges
+ * are small enough to be handed to separate workers of a work-stealing pool.
+ * 
+ * <p>
+ * A player's update only writes to that player's own state, it reads the rest of the world which
+ * doesn't change while the updates are being encoded, so any amount of players can be updated at
+ * once.
+ * </p>
+ */
+public final class UpdateTask extends RecursiveAction {
+
+      /**
+       * The serial version unique identifier of this class.
+       */
+      private static final long serialVersionUID = 1L;
+
+      /**
+       * The single logger for this class.
+       */
+      private static final Logger logger = Logger.getLogger(UpdateTask.class.getName());
+
+      /**
+       * The players to update.
+       */
+      private final transient Player[] players;
+
+      /**
+       * The index of the first player of the range, inclusive.
+       */
+      private final int from;
+
+      /**
+       * The index of the last player of the range, exclusive.
+       */
+      private final int to;
+
+      /**
+       * Creates a new {@link UpdateTask}.
+       * 
+       * @param players The players to update.
+       * 
+       * @param from The index of the first player of the range, inclusive.
+       * 
+       * @param to The index of the last player of the range, exclusive.
+       */
+      public UpdateTask(Player[] players, int from, int to) {
+            this.players = players;
+            this.from = from;
+            this.to = to;
+      }
+
+      @Override
+      protected void compute() {
+            if (to - from <= GameConstants.UPDATE_TASK_THRESHOLD) {
+                  for (int index = from; index < to; index++) {
+                        update(players[index]);
+                  }
+                  return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new UpdateTask(players, from, middle), new UpdateTask(players, middle, to));
+      }
+
+      /**
+       * Updates a single player, a failure is logged so it doesn't cost the rest of the range its
+       * update.
+       * 
+       * @param player The player to update.
+       */
+      private static void update(Player player) {
+            try {
+                  player.getEventListener().update(player);
+            } catch (RuntimeException exception) {
+                  logger.log(Level.WARNING, String.format("[%s] failed to update", player), exception);
+            }
+      }
+}
@@ -1,5 +1,7 @@
 package main.astraeus.net;
 
+import java.util.concurrent.TimeUnit;
+
 import main.astraeus.net.packet.incoming.IncomingPacketListener;
 
 /**
@@ -10,17 +12,167 @@ import main.astraeus.net.packet.incoming.IncomingPacketListener;
 public class NetworkConstants {
 
       /**
-       * The rate in milliseconds in which the network processes logic.
+       * The amount of worker reactors that handle the network events of connected clients.
+       */
+      public static final int NETWORK_WORKERS = Runtime.getRuntime().availableProcessors();
+
+      /**
+       * The maximum amount of queued messages handed to a single gathering write.
+       */
+      public static final int GATHERING_WRITE_LIMIT = 64;
+
+      /**
+       * The largest capacity a channel's inbound buffer may grow to while it waits for a complete
+       * frame, the client never writes a frame larger than its 5000 byte stream buffer.
+       */
+      public static final int CUMULATION_LIMIT = 8192;
+
+      /**
+       * The amount of workers that decode login blocks.
+       */
+      public static final int LOGIN_DECODE_THREADS = 1;
+
+      /**
+       * The amount of workers that decrypt the secure part of login blocks.
+       */
+      public static final int LOGIN_DECRYPT_THREADS =
+                  Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+      /**
+       * The amount of workers that load player profiles from disk.
+       */
+      public static final int LOGIN_LOAD_THREADS = 2;
+
+      /**
+       * The amount of login requests that can wait for a single stage, requests beyond it are
+       * turned away.
+       */
+      public static final int LOGIN_STAGE_CAPACITY = 128;
+
+      /**
+       * The amount of players that can be registered into the world per game tick, the rest of
+       * the logins wait for the following ticks.
+       */
+      public static final int LOGIN_ADMISSIONS_PER_TICK = 25;
+
+      /**
+       * The amount of connections a single address can open per second.
+       */
+      public static final double ACCEPTS_PER_SECOND = 2;
+
+      /**
+       * The amount of connections a single address can open at once after being quiet.
+       */
+      public static final int ACCEPT_BURST = 10;
+
+      /**
+       * The amount of login handshakes a single address can start per second.
+       */
+      public static final double HANDSHAKES_PER_SECOND = 2;
+
+      /**
+       * The amount of login handshakes a single address can start at once after being quiet.
+       */
+      public static final int HANDSHAKE_BURST = 10;
+
+      /**
+       * The amount of failed logins a single address regains per second, one every ten seconds.
+       */
+      public static final double FAILED_LOGINS_PER_SECOND = 0.1;
+
+      /**
+       * The amount of failed logins a single address can have before it is refused.
+       */
+      public static final int FAILED_LOGIN_BURST = 5;
+
+      /**
+       * The time, in nanoseconds, a quiet address is remembered by the connection throttle.
        */
-      public static final int NETWORK_CYCLE_RATE = 30;
+      public static final long THROTTLE_EXPIRY = TimeUnit.SECONDS.toNanos(60);
 
       /**
-       * The amount of incoming packets that can be processed at a time.
+       * The time, in nanoseconds, a new connection has to finish the login handshake.
+       */
+      public static final long HANDSHAKE_TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+
+      /**
+       * The time, in nanoseconds, a connection can stay silent while its login is sent and handled,
+       * until it is queued for registration.
+       */
+      public static final long LOGIN_TIMEOUT = TimeUnit.SECONDS.toNanos(30);
+
+      /**
+       * The time, in nanoseconds, a logged in client can stay silent before it is disconnected.
+       * The client sends a heartbeat every few seconds even when the player is idle.
+       */
+      public static final long IDLE_TIMEOUT = TimeUnit.SECONDS.toNanos(60);
+
+      /**
+       * The amount of slots of a reactor's timing wheel.
+       */
+      public static final int TIMING_WHEEL_SLOTS = 512;
+
+      /**
+       * The duration, in nanoseconds, of a single tick of a reactor's timing wheel.
+       */
+      public static final long TIMING_WHEEL_TICK = TimeUnit.MILLISECONDS.toNanos(100);
+
+      /**
+       * The amount of bytes a channel can have waiting to be written before it is considered
+       * congested.
+       */
+      public static final int OUTBOUND_BYTE_LIMIT = 64 * 1024;
+
+      /**
+       * The amount of bytes a channel can have waiting to be written before it is closed at once.
+       */
+      public static final int OUTBOUND_HARD_LIMIT = 512 * 1024;
+
+      /**
+       * The time, in nanoseconds, a channel can stay congested before it is closed.
+       */
+      public static final long SLOW_CONSUMER_TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+
+      /**
+       * The size of the buffer a blocking connection reads into.
+       */
+      public static final int BLOCKING_READ_SIZE = 4096;
+
+      /**
+       * The time, in nanoseconds, between the idle checks of a blocking connection.
+       */
+      public static final long BLOCKING_IDLE_CHECK = TimeUnit.SECONDS.toNanos(1);
+
+      /**
+       * The amount of file data sent in a single on-demand chunk.
+       */
+      public static final int ONDEMAND_CHUNK_SIZE = 500;
+
+      /**
+       * The amount of on-demand chunks a client can send in a single turn before the next client
+       * takes its turn.
+       */
+      public static final int ONDEMAND_CHUNKS_PER_TURN = 8;
+
+      /**
+       * The amount of on-demand requests a client can have waiting, clients that exceed it are
+       * disconnected.
+       */
+      public static final int ONDEMAND_REQUEST_LIMIT = 512;
+
+      /**
+       * The amount of incoming packets that can be processed for a single player per game tick.
        */
       public static final int DECODE_LIMIT = 30;
 
       /**
-       * An array of incoming packets.
+       * The amount of decoded packets a player can have waiting for the game thread, packets
+       * received beyond it are dropped.
+       */
+      public static final int INCOMING_QUEUE_CAPACITY = 128;
+
+      /**
+       * The incoming packet listeners, indexed by opcode.
        */
       public static final IncomingPacketListener[] PACKETS = new IncomingPacketListener[257];
 
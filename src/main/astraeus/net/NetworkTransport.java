@@ -0,0 +1,17 @@
+package main.astraeus.net;
+
+/**
+ * The ways connections can be served, chosen at startup.
+ */
+public enum NetworkTransport {
+
+      /**
+       * Non-blocking channels multiplexed over a few selector threads.
+       */
+      SELECTOR,
+
+      /**
+       * Blocking channels with a reader and a writer virtual thread per connection.
+       */
+      BLOCKING
+}
@@ -0,0 +1,197 @@
+package main.astraeus.net.blocking;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import main.astraeus.net.NetworkConstants;
+import main.astraeus.net.channel.PlayerChannel;
+import main.astraeus.net.channel.events.DecodeChannelEvent;
+import main.astraeus.net.reactor.Reactor;
+
+/**
+ * The {@link Reactor} of a single blocking connection. A reader thread blocks on the channel and
+ * runs the decoders, a writer thread runs every other task, such as flushing the outbound queue.
+ * Both hold the same lock while they touch the channel, so tasks never overlap just like on a
+ * selector thread.
+ */
+public final class BlockingConnection implements Reactor {
+
+      /**
+       * The single logger for this class.
+       */
+      private static final Logger logger = Logger.getLogger(BlockingConnection.class.getName());
+
+      /**
+       * The channel of this connection.
+       */
+      private final PlayerChannel context;
+
+      /**
+       * The amount of open connections of the transport.
+       */
+      private final AtomicInteger connections;
+
+      /**
+       * The lock held while the channel is being touched.
+       */
+      private final ReentrantLock lock = new ReentrantLock();
+
+      /**
+       * The tasks waiting for the writer thread.
+       */
+      private final BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+
+      /**
+       * The buffer the reader thread blocks on, only touched by it. The bytes are handed to the
+       * channel's buffer under the lock, so a close never releases a buffer that is being read into.
+       */
+      private final ByteBuffer staging = ByteBuffer.allocate(NetworkConstants.BLOCKING_READ_SIZE);
+
+      /**
+       * The flag that denotes this connection has been released.
+       */
+      private final AtomicBoolean released = new AtomicBoolean();
+
+      /**
+       * Creates a new {@link BlockingConnection}.
+       * 
+       * @param context The channel of this connection.
+       * 
+       * @param connections The amount of open connections of the transport.
+       */
+      public BlockingConnection(PlayerChannel context, AtomicInteger connections) {
+            this.context = context;
+            this.connections = connections;
+      }
+
+      @Override
+      public void execute(Runnable task) {
+            if (inReactor()) {
+                  task.run();
+                  return;
+            }
+            tasks.add(task);
+      }
+
+      @Override
+      public boolean inReactor() {
+            return lock.isHeldByCurrentThread();
+      }
+
+      @Override
+      public void release() {
+            if (released.compareAndSet(false, true)) {
+                  connections.decrementAndGet();
+            }
+      }
+
+      @Override
+      public void unwatch(PlayerChannel context) {
+            /*
+             * The writer checks for idleness itself, there is nothing to cancel.
+             */
+      }
+
+      /**
+       * Blocks on the channel and decodes whatever arrives, until the channel is closed.
+       */
+      public void read() {
+            try {
+                  while (!context.isClosed()) {
+                        staging.clear();
+
+                        if (context.getChannel().read(staging) == -1) {
+                              context.close();
+                              return;
+                        }
+                        staging.flip();
+
+                        lock.lock();
+                        try {
+                              if (!decode()) {
+                                    return;
+                              }
+                        } finally {
+                              lock.unlock();
+                        }
+                  }
+            } catch (IOException exception) {
+                  context.close();
+            }
+      }
+
+      /**
+       * Moves the bytes that were read into the channel's buffer and decodes them.
+       * 
+       * @return {@code false} if the channel has been closed.
+       */
+      private boolean decode() {
+            if (context.isClosed()) {
+                  return false;
+            }
+            context.setLastRead(System.nanoTime());
+
+            while (staging.hasRemaining()) {
+
+                  /*
+                   * A partial frame fills the whole buffer, it needs more room before the rest can be
+                   * read.
+                   */
+                  if (!context.getBuffer().hasRemaining() && !context.expandBuffer()) {
+                        context.close();
+                        return false;
+                  }
+
+                  final ByteBuffer buffer = context.getBuffer();
+                  final int length = Math.min(buffer.remaining(), staging.remaining());
+                  final int limit = staging.limit();
+
+                  staging.limit(staging.position() + length);
+                  buffer.put(staging);
+                  staging.limit(limit);
+
+                  context.execute(new DecodeChannelEvent());
+
+                  if (context.isClosed()) {
+                        return false;
+                  }
+            }
+            return true;
+      }
+
+      /**
+       * Runs the tasks handed to this connection and closes it once it has been silent for too
+       * long, until the channel is closed and no task is left.
+       */
+      public void write() {
+            try {
+                  while (!context.isClosed() || !tasks.isEmpty()) {
+                        final Runnable task = tasks.poll(NetworkConstants.BLOCKING_IDLE_CHECK, TimeUnit.NANOSECONDS);
+
+                        lock.lock();
+                        try {
+                              if (task != null) {
+                                    task.run();
+                              } else if (!context.isClosed() && System.nanoTime() - context.getLastRead() > context.getIdleLimit()) {
+                                    logger.info(String.format("[%s] - Connection has timed out.", context.getChannel().socket().getRemoteSocketAddress()));
+                                    context.close();
+                              }
+                        } catch (RuntimeException exception) {
+                              logger.log(Level.WARNING, "A network task has failed.", exception);
+                        } finally {
+                              lock.unlock();
+                        }
+                  }
+            } catch (InterruptedException exception) {
+                  context.close();
+            }
+      }
+}
@@ -0,0 +1,134 @@
+package main.astraeus.net.blocking;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import main.astraeus.net.channel.PlayerChannel;
+import main.astraeus.net.protocol.codec.login.LoginRequestDecoder;
+import main.astraeus.net.throttle.ConnectionThrottle;
+import main.astraeus.net.throttle.ThrottleType;
+
+/**
+ * A transport that serves every connection with blocking I/O on virtual threads of its own, a
+ * reader and a writer per connection. A virtual thread blocking on a channel only parks, so the
+ * cost of a connection stays close to that of its buffers. The connections go through the same
+ * protocol decoders as the selector transport.
+ */
+public final class BlockingTransport implements Runnable {
+
+      /**
+       * The single logger for this class.
+       */
+      private static final Logger logger = Logger.getLogger(BlockingTransport.class.getName());
+
+      /**
+       * A blocking channel for stream-oriented listening sockets.
+       */
+      private final ServerSocketChannel channel;
+
+      /**
+       * The virtual threads the connections are served on.
+       */
+      private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+      /**
+       * The amount of open connections.
+       */
+      private final AtomicInteger connections = new AtomicInteger();
+
+      /**
+       * The thread that is blocking on the listening channel.
+       */
+      private Thread thread;
+
+      /**
+       * Creates a new {@link BlockingTransport}.
+       * 
+       * @param channel A blocking channel for stream-oriented listening sockets.
+       */
+      public BlockingTransport(ServerSocketChannel channel) {
+            this.channel = channel;
+      }
+
+      /**
+       * Starts the acceptor thread.
+       */
+      public void start() {
+            thread = new Thread(this, "BlockingAcceptor");
+            thread.start();
+      }
+
+      /**
+       * Stops accepting connections and stops the threads of every connection.
+       */
+      public void shutdown() {
+            try {
+                  channel.close();
+                  thread.join();
+            } catch (IOException exception) {
+                  logger.log(Level.WARNING, "Could not close the listening channel.", exception);
+            } catch (InterruptedException exception) {
+                  Thread.currentThread().interrupt();
+            }
+            executor.shutdownNow();
+      }
+
+      @Override
+      public void run() {
+            while (channel.isOpen()) {
+                  final SocketChannel accepted;
+
+                  try {
+                        accepted = channel.accept();
+                  } catch (ClosedChannelException exception) {
+                        break;
+                  } catch (IOException exception) {
+                        logger.log(Level.WARNING, "Could not accept a connection.", exception);
+                        continue;
+                  }
+
+                  /*
+                   * Turns away hosts that connect too fast or keep failing to log in, before a
+                   * thread, a channel or a buffer is spent on them.
+                   */
+                  final InetAddress address = accepted.socket().getInetAddress();
+                  if (ConnectionThrottle.isLimited(address, ThrottleType.FAILED_LOGIN)
+                              || !ConnectionThrottle.tryAcquire(address, ThrottleType.ACCEPT)) {
+                        try {
+                              accepted.close();
+                        } catch (IOException exception) {
+                              logger.log(Level.FINE, "Could not close a throttled connection.", exception);
+                        }
+                        continue;
+                  }
+
+                  final PlayerChannel context = new PlayerChannel(accepted);
+                  final BlockingConnection connection = new BlockingConnection(context, connections);
+
+                  connections.incrementAndGet();
+                  context.setReactor(connection);
+                  context.setProtocolDecoder(new LoginRequestDecoder());
+                  context.setLastRead(System.nanoTime());
+
+                  executor.execute(connection::read);
+                  executor.execute(connection::write);
+            }
+      }
+
+      /**
+       * Returns the amount of open connections.
+       * 
+       * @return The returned amount.
+       */
+      public int getConnectionCount() {
+            return connections.get();
+      }
+}
@@ -0,0 +1,314 @@
+package main.astraeus.net.buffer;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import main.astraeus.Configuration;
+
+/**
+ * A pool of direct {@link ByteBuffer}s grouped into power of two size classes. Direct buffers are
+ * handed to the socket without the temporary copy the JDK makes for heap buffers, pooling them
+ * keeps the encoding of messages from producing garbage.
+ * 
+ * <p>
+ * While {@link Configuration#BUFFER_LEAK_DETECTION} is enabled every acquired buffer is tracked, a
+ * buffer that is garbage collected without having been released is reported as a leak and a
+ * buffer that is released while it isn't tracked is reported and not pooled twice.
+ * </p>
+ */
+public final class ByteBufferPool {
+
+      /**
+       * The single logger for this class.
+       */
+      private static final Logger logger = Logger.getLogger(ByteBufferPool.class.getName());
+
+      /**
+       * The log of the smallest size class.
+       */
+      private static final int MINIMUM_SIZE_LOG = 6;
+
+      /**
+       * The log of the largest size class, larger requests are not pooled.
+       */
+      private static final int MAXIMUM_SIZE_LOG = 16;
+
+      /**
+       * The maximum amount of bytes retained by a single size class.
+       */
+      private static final int RETAINED_BYTES_PER_CLASS = 4 * 1024 * 1024;
+
+      /**
+       * The interval of acquisitions at which the allocation site of a tracked buffer is recorded.
+       */
+      private static final int LEAK_TRACE_INTERVAL = 64;
+
+      /**
+       * The free buffers of every size class.
+       */
+      @SuppressWarnings({ "rawtypes", "unchecked" })
+      private static final Queue<ByteBuffer>[] FREE = new Queue[MAXIMUM_SIZE_LOG - MINIMUM_SIZE_LOG + 1];
+
+      /**
+       * The amount of free buffers of every size class.
+       */
+      private static final AtomicInteger[] FREE_COUNT = new AtomicInteger[FREE.length];
+
+      /**
+       * The amount of direct buffers this pool has allocated.
+       */
+      private static final AtomicLong ALLOCATED = new AtomicLong();
+
+      /**
+       * The amount of buffers that have been handed out by this pool.
+       */
+      private static final AtomicLong ACQUIRED = new AtomicLong();
+
+      /**
+       * The queue the tracked buffers are placed on once they are garbage collected.
+       */
+      private static final ReferenceQueue<ByteBuffer> COLLECTED = new ReferenceQueue<>();
+
+      /**
+       * The tracked buffers that have not yet been released, keyed by identity hash code.
+       */
+      private static final Map<Integer, LeakReference> TRACKED = new ConcurrentHashMap<>();
+
+      static {
+            for (int i = 0; i < FREE.length; i++) {
+                  FREE[i] = new ConcurrentLinkedQueue<>();
+                  FREE_COUNT[i] = new AtomicInteger();
+            }
+      }
+
+      /**
+       * Acquires a cleared buffer that can hold at least the requested amount of bytes.
+       * 
+       * @param capacity The amount of bytes that is required.
+       * 
+       * @return The acquired buffer.
+       */
+      public static ByteBuffer acquire(int capacity) {
+            final int sizeClass = sizeClass(capacity);
+
+            ByteBuffer buffer = null;
+
+            if (sizeClass == -1) {
+                  buffer = ByteBuffer.allocateDirect(capacity);
+                  ALLOCATED.incrementAndGet();
+            } else {
+                  buffer = FREE[sizeClass].poll();
+
+                  if (buffer == null) {
+                        buffer = ByteBuffer.allocateDirect(1 << (sizeClass + MINIMUM_SIZE_LOG));
+                        ALLOCATED.incrementAndGet();
+                  } else {
+                        FREE_COUNT[sizeClass].decrementAndGet();
+                        buffer.clear().order(ByteOrder.BIG_ENDIAN);
+                  }
+            }
+
+            final long count = ACQUIRED.incrementAndGet();
+
+            if (Configuration.BUFFER_LEAK_DETECTION) {
+                  track(buffer, count % LEAK_TRACE_INTERVAL == 0);
+            }
+            return buffer;
+      }
+
+      /**
+       * Returns a buffer to the pool. Buffers that were not acquired from this pool, or size
+       * classes that already retain enough memory, are left to the garbage collector.
+       * 
+       * @param buffer The buffer to release, it must not be used afterwards.
+       */
+      public static void release(ByteBuffer buffer) {
+            if (buffer == null || !buffer.isDirect()) {
+                  return;
+            }
+
+            if (Configuration.BUFFER_LEAK_DETECTION && !untrack(buffer)) {
+                  logger.log(Level.WARNING, String.format("A buffer of %d bytes was released twice or not acquired from the pool.", buffer.capacity()),
+                              new Throwable("Release site"));
+                  return;
+            }
+
+            final int capacity = buffer.capacity();
+            final int sizeClass = sizeClass(capacity);
+
+            if (sizeClass == -1 || capacity != 1 << (sizeClass + MINIMUM_SIZE_LOG)) {
+                  return;
+            }
+
+            if (FREE_COUNT[sizeClass].incrementAndGet() * capacity > RETAINED_BYTES_PER_CLASS) {
+                  FREE_COUNT[sizeClass].decrementAndGet();
+                  return;
+            }
+            FREE[sizeClass].add(buffer);
+      }
+
+      /**
+       * Returns the size class of a capacity.
+       * 
+       * @param capacity The capacity.
+       * 
+       * @return The index of the size class or {@code -1} if the capacity is too large to pool.
+       */
+      private static int sizeClass(int capacity) {
+            if (capacity > 1 << MAXIMUM_SIZE_LOG) {
+                  return -1;
+            }
+            final int log = 32 - Integer.numberOfLeadingZeros(Math.max(capacity, 1) - 1);
+            return Math.max(log, MINIMUM_SIZE_LOG) - MINIMUM_SIZE_LOG;
+      }
+
+      /**
+       * Starts tracking an acquired buffer and reports the buffers that leaked since the last call.
+       * 
+       * @param buffer The acquired buffer.
+       * 
+       * @param trace The flag that denotes the allocation site should be recorded.
+       */
+      private static void track(ByteBuffer buffer, boolean trace) {
+            final LeakReference reference = new LeakReference(buffer, trace ? new Throwable("Allocation site") : null);
+            TRACKED.merge(reference.key, reference, (head, added) -> {
+                  added.next = head;
+                  return added;
+            });
+
+            LeakReference collected;
+            while ((collected = (LeakReference) COLLECTED.poll()) != null) {
+                  remove(collected.key, collected);
+                  logger.log(Level.WARNING, String.format("A pooled buffer of %d bytes was never released.", collected.capacity), collected.site);
+            }
+      }
+
+      /**
+       * Stops tracking a released buffer. The reference is looked up and removed atomically, so of
+       * two releases of the same buffer only one finds it.
+       * 
+       * @param buffer The released buffer.
+       * 
+       * @return {@code true} if the buffer was tracked, {@code false} if it was already released.
+       */
+      private static boolean untrack(ByteBuffer buffer) {
+            final boolean[] tracked = new boolean[1];
+
+            TRACKED.computeIfPresent(System.identityHashCode(buffer), (key, head) -> {
+                  LeakReference previous = null;
+
+                  for (LeakReference reference = head; reference != null; reference = reference.next) {
+                        if (reference.get() == buffer) {
+                              reference.clear();
+                              tracked[0] = true;
+
+                              if (previous == null) {
+                                    return reference.next;
+                              }
+                              previous.next = reference.next;
+                              return head;
+                        }
+                        previous = reference;
+                  }
+                  return head;
+            });
+            return tracked[0];
+      }
+
+      /**
+       * Removes a reference from the chain of references that share an identity hash code.
+       * 
+       * @param key The identity hash code.
+       * 
+       * @param removed The reference to remove.
+       */
+      private static void remove(int key, LeakReference removed) {
+            TRACKED.computeIfPresent(key, (k, head) -> {
+                  if (head == removed) {
+                        return head.next;
+                  }
+                  for (LeakReference reference = head; reference.next != null; reference = reference.next) {
+                        if (reference.next == removed) {
+                              reference.next = removed.next;
+                              break;
+                        }
+                  }
+                  return head;
+            });
+      }
+
+      /**
+       * Returns the amount of direct buffers this pool has allocated.
+       * 
+       * @return The returned amount.
+       */
+      public static long getAllocatedCount() {
+            return ALLOCATED.get();
+      }
+
+      /**
+       * Returns the amount of buffers that have been handed out by this pool.
+       * 
+       * @return The returned amount.
+       */
+      public static long getAcquiredCount() {
+            return ACQUIRED.get();
+      }
+
+      /**
+       * A weak reference to a tracked buffer.
+       */
+      private static final class LeakReference extends WeakReference<ByteBuffer> {
+
+            /**
+             * The identity hash code of the tracked buffer.
+             */
+            private final int key;
+
+            /**
+             * The capacity of the tracked buffer.
+             */
+            private final int capacity;
+
+            /**
+             * The allocation site of the tracked buffer, if it was recorded.
+             */
+            private final Throwable site;
+
+            /**
+             * The next reference with the same identity hash code.
+             */
+            private LeakReference next;
+
+            /**
+             * Creates a new {@link LeakReference}.
+             * 
+             * @param buffer The tracked buffer.
+             * 
+             * @param site The allocation site of the tracked buffer.
+             */
+            private LeakReference(ByteBuffer buffer, Throwable site) {
+                  super(buffer, COLLECTED);
+                  this.key = System.identityHashCode(buffer);
+                  this.capacity = buffer.capacity();
+                  this.site = site;
+            }
+      }
+
+      /**
+       * Prevents instantiation of this static utility class.
+       */
+      private ByteBufferPool() {
+
+      }
+}
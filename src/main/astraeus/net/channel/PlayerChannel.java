@@ -4,13 +4,22 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 import main.astraeus.game.model.entity.mobile.player.Player;
+import main.astraeus.net.NetworkConstants;
+import main.astraeus.net.buffer.ByteBufferPool;
 import main.astraeus.net.channel.events.PrepareChannelEvent;
 import main.astraeus.net.packet.PacketWriter;
 import main.astraeus.net.packet.outgoing.OutgoingPacket;
 import main.astraeus.net.protocol.ProtocolStateDecoder;
+import main.astraeus.net.reactor.Reactor;
+import main.astraeus.net.reactor.TimingWheel.Timeout;
 
 /**
  * A session handler that will maintain input and output operations for a player.
@@ -29,26 +38,86 @@ public final class PlayerChannel {
        */
       private SelectionKey selectedKey;
 
+      /**
+       * The reactor that handles the network events of this channel.
+       */
+      private Reactor reactor;
+
       /**
        * A selected channel for stream-oriented connecting sockets.
        */
       private final SocketChannel channel;
 
       /**
-       * A dynamic buffer for reading sequences of bytes over a channel.
+       * A dynamic buffer for reading sequences of bytes over a channel, partial frames are kept
+       * in it between reads.
+       */
+      private ByteBuffer buffer = ByteBufferPool.acquire(512);
+
+      /**
+       * The encoded messages that are waiting to be written to the channel, in order.
+       */
+      private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+
+      /**
+       * The flag that denotes a flush has already been scheduled on the reactor.
+       */
+      private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+      /**
+       * The flag that denotes this channel has been closed.
+       */
+      private final AtomicBoolean closed = new AtomicBoolean();
+
+      /**
+       * The amount of bytes queued and not yet written to the channel.
+       */
+      private final AtomicLong queuedBytes = new AtomicLong();
+
+      /**
+       * The largest amount of bytes that have been waiting in the outbound queue at once.
+       */
+      private final AtomicLong highWaterMark = new AtomicLong();
+
+      /**
+       * The time, in nanoseconds, the outbound queue went over its budget, or zero if it is within
+       * it.
+       */
+      private volatile long congestedSince;
+
+      /**
+       * The buffers handed to a single gathering write, only used by the reactor thread.
        */
-      private final ByteBuffer buffer = ByteBuffer.allocate(512);
+      private final ByteBuffer[] gather = new ByteBuffer[NetworkConstants.GATHERING_WRITE_LIMIT];
 
       /**
-       * An instance of the player connecting through this channel.
+       * An instance of the player connecting through this channel, created once the login
+       * handshake is accepted and replaced by the player that is resumed when the client
+       * reconnects.
        */
-      private final Player player = new Player(this);
+      private volatile Player player;
 
       /**
        * A state based decoder to handle the asynchronous translation of client protocol.
        */
       private ProtocolStateDecoder protocolDecoder;
 
+      /**
+       * The time, in nanoseconds, bytes were last read from this channel, only used by the reactor
+       * thread.
+       */
+      private long lastRead;
+
+      /**
+       * The time, in nanoseconds, this channel can stay silent before it is closed.
+       */
+      private volatile long idleLimit = NetworkConstants.HANDSHAKE_TIMEOUT;
+
+      /**
+       * The pending idle timeout of this channel, only used by the reactor thread.
+       */
+      private Timeout idleTimeout;
+
       /**
        * The overloaded class constructor used for instantiation of this class file.
        * 
@@ -85,6 +154,26 @@ public final class PlayerChannel {
             return buffer;
       }
 
+      /**
+       * Doubles the capacity of the dynamic buffer, keeping its contents. The buffer is expected
+       * to be in write mode.
+       * 
+       * @return {@code true} if the buffer was expanded, {@code false} if it is already at the
+       *         cumulation limit.
+       */
+      public boolean expandBuffer() {
+            if (buffer.capacity() >= NetworkConstants.CUMULATION_LIMIT) {
+                  return false;
+            }
+            ByteBuffer old = buffer;
+            buffer = ByteBufferPool
+                        .acquire(Math.min(old.capacity() << 1, NetworkConstants.CUMULATION_LIMIT));
+            old.flip();
+            buffer.put(old);
+            ByteBufferPool.release(old);
+            return true;
+      }
+
       /**
        * Returns an instance of the server's protocol decoder.
        * 
@@ -113,14 +202,105 @@ public final class PlayerChannel {
       }
 
       /**
-       * Returns an instance of the player connecting through this channel.
+       * Returns an instance of the reactor that handles the network events of this channel.
        * 
        * @return The returned instance.
        */
+      public Reactor getReactor() {
+            return reactor;
+      }
+
+      /**
+       * Modifies the reactor that handles the network events of this channel.
+       * 
+       * @param reactor The new modification.
+       */
+      public void setReactor(Reactor reactor) {
+            this.reactor = reactor;
+      }
+
+      /**
+       * Returns an instance of the player connecting through this channel.
+       * 
+       * @return The returned instance, or {@code null} before the login handshake is accepted.
+       */
       public Player getPlayer() {
             return player;
       }
 
+      /**
+       * Returns the time bytes were last read from this channel.
+       * 
+       * @return The returned time, in nanoseconds.
+       */
+      public long getLastRead() {
+            return lastRead;
+      }
+
+      /**
+       * Modifies the time bytes were last read from this channel.
+       * 
+       * @param lastRead The new modification.
+       */
+      public void setLastRead(long lastRead) {
+            this.lastRead = lastRead;
+      }
+
+      /**
+       * Returns the time this channel can stay silent before it is closed.
+       * 
+       * @return The returned time, in nanoseconds.
+       */
+      public long getIdleLimit() {
+            return idleLimit;
+      }
+
+      /**
+       * Modifies the time this channel can stay silent before it is closed, it is applied the next
+       * time the pending idle timeout expires.
+       * 
+       * @param idleLimit The new modification.
+       */
+      public void setIdleLimit(long idleLimit) {
+            this.idleLimit = idleLimit;
+      }
+
+      /**
+       * Returns an instance of the pending idle timeout of this channel.
+       * 
+       * @return The returned instance.
+       */
+      public Timeout getIdleTimeout() {
+            return idleTimeout;
+      }
+
+      /**
+       * Modifies the pending idle timeout of this channel.
+       * 
+       * @param idleTimeout The new modification.
+       */
+      public void setIdleTimeout(Timeout idleTimeout) {
+            this.idleTimeout = idleTimeout;
+      }
+
+      /**
+       * Modifies the player connecting through this channel.
+       * 
+       * @param player The new modification.
+       */
+      public void setPlayer(Player player) {
+            this.player = player;
+      }
+
+      /**
+       * Determines if this channel has been closed, its buffers must not be touched afterwards.
+       * 
+       * @return {@code true} if this channel has been closed.
+       */
+      public boolean isClosed() {
+            return closed.get();
+      }
+
       /**
        * Prepares the channel's internal buffer for the writing of a message.
        * 
@@ -146,34 +326,252 @@ public final class PlayerChannel {
             }
       }
 
+      /**
+       * Queues an encoded message to be written to the channel. When called from the reactor
+       * thread the queue is flushed immediately, otherwise a flush is scheduled on the reactor.
+       * 
+       * @param message The encoded message, ready to be read from.
+       */
+      public void queue(ByteBuffer message) {
+            if (closed.get()) {
+                  ByteBufferPool.release(message);
+                  return;
+            }
+
+            /*
+             * The message is counted before the reactor can see it, a flush that writes part of it
+             * right away would otherwise subtract bytes that were never added.
+             */
+            final long queued = queuedBytes.addAndGet(message.remaining());
+            highWaterMark.accumulateAndGet(queued, Math::max);
+            outbound.add(message);
+
+            /*
+             * The channel was closed while the message was being added, it may have been added
+             * after the queue was emptied.
+             */
+            if (closed.get()) {
+                  ByteBuffer leftover;
+                  while ((leftover = outbound.poll()) != null) {
+                        ByteBufferPool.release(leftover);
+                  }
+                  return;
+            }
+
+            if (queued > NetworkConstants.OUTBOUND_BYTE_LIMIT && evict(queued)) {
+                  return;
+            }
+
+            if (flushScheduled.compareAndSet(false, true)) {
+                  reactor.execute(() -> {
+                        flushScheduled.set(false);
+                        flush();
+                  });
+            }
+      }
+
+      /**
+       * Decides what happens to a channel whose outbound queue is over its budget. A client that
+       * stops reading entirely is closed as soon as the hard limit is reached, one that stays over
+       * the budget for too long is closed as well.
+       * 
+       * @param queued The amount of bytes waiting in the outbound queue.
+       * 
+       * @return {@code true} if the channel has been closed.
+       */
+      private boolean evict(long queued) {
+            final long now = System.nanoTime();
+
+            if (congestedSince == 0) {
+                  congestedSince = now;
+            }
+
+            final boolean hard = queued > NetworkConstants.OUTBOUND_HARD_LIMIT;
+
+            if (!hard && now - congestedSince < NetworkConstants.SLOW_CONSUMER_TIMEOUT) {
+                  return false;
+            }
+
+            logger.warning(String.format("[%s] - Evicting a slow consumer with %d bytes queued.", player, queued));
+            if (reactor.inReactor()) {
+                  close();
+            } else {
+                  reactor.execute(this::close);
+            }
+            return true;
+      }
+
+      /**
+       * Determines if the outbound queue of this channel is over its budget, packets that can be
+       * coalesced are held back while it is.
+       * 
+       * @return {@code true} if the channel is congested.
+       */
+      public boolean isCongested() {
+            return congestedSince != 0;
+      }
+
+      /**
+       * Returns the amount of bytes queued and not yet written to the channel.
+       * 
+       * @return The returned amount.
+       */
+      public long getQueuedBytes() {
+            return queuedBytes.get();
+      }
+
+      /**
+       * Returns the largest amount of bytes that have been waiting in the outbound queue at once.
+       * 
+       * @return The returned amount.
+       */
+      public long getHighWaterMark() {
+            return highWaterMark.get();
+      }
+
+      /**
+       * Writes as much of the outbound queue as the channel accepts, using gathering writes so a
+       * single system call drains many messages. Whatever is left is written once the selector
+       * reports the channel as writable again. This must only be called by the reactor thread.
+       */
+      public void flush() {
+            if (selectedKey != null ? !selectedKey.isValid() : !channel.isOpen()) {
+                  return;
+            }
+
+            try {
+                  while (!outbound.isEmpty()) {
+                        int count = 0;
+
+                        for (ByteBuffer message : outbound) {
+                              if (count == gather.length) {
+                                    break;
+                              }
+                              gather[count++] = message;
+                        }
+
+                        queuedBytes.addAndGet(-channel.write(gather, 0, count));
+
+                        final boolean partial = gather[count - 1].hasRemaining();
+
+                        Arrays.fill(gather, 0, count, null);
+
+                        ByteBuffer head;
+                        while ((head = outbound.peek()) != null && !head.hasRemaining()) {
+                              ByteBufferPool.release(outbound.poll());
+                        }
+
+                        if (congestedSince != 0 && queuedBytes.get() <= NetworkConstants.OUTBOUND_BYTE_LIMIT) {
+                              congestedSince = 0;
+                        }
+
+                        /*
+                         * The socket's send buffer is full, the selector will tell us when it
+                         * drained. A blocking channel has no key, it simply writes the rest.
+                         */
+                        if (partial && selectedKey != null) {
+                              selectedKey.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                              return;
+                        }
+                  }
+                  if (selectedKey != null) {
+                        selectedKey.interestOps(SelectionKey.OP_READ);
+                  }
+            } catch (IOException exception) {
+                  close();
+            }
+      }
+
       /**
        * Forces an existing channel's connection to close.
        */
       public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                  return;
+            }
+
             try {
-                  if (player.getContext().getSelectedKey().isValid()) {
+                  /*
+                   * The player is removed from the virtual world by the game thread, once it is
+                   * clear the client isn't going to reconnect.
+                   */
+                  if (reactor != null) {
 
                         /*
-                         * Requests that the registration of this key's channel with its selector be
-                         * cancelled.
+                         * Gives the messages that are still queued a last chance to leave.
                          */
-                        selectedKey.cancel();
+                        if (reactor.inReactor()) {
+                              flush();
+                        }
 
                         /*
-                         * Removes the player from the virtual world.
+                         * Requests that the registration of this key's channel with its selector be
+                         * cancelled, a blocking channel has no key.
                          */
-                        player.getEventListener().remove(player);
-                        
+                        if (selectedKey != null) {
+                              selectedKey.cancel();
+                        }
+                        reactor.release();
+
                         /*
-                         * Informs the user of the removal of the channel's connection.
+                         * The reactor thread is the only one touching the buffers, they are
+                         * returned to the pool from there.
                          */
-                        logger.info(String.format("[%s] - Connection has been closed.", channel.getLocalAddress()));
-                        
+                        reactor.execute(this::releaseBuffers);
+                  }
+
+                  /*
+                   * A blocking channel is already closed when the thread reading it was
+                   * interrupted.
+                   */
+                  if (!channel.isOpen()) {
+                        return;
+                  }
+
+                  /*
+                   * Informs the user of the removal of the channel's connection.
+                   */
+                  logger.info(String.format("[%s] - Connection has been closed.", channel.getLocalAddress()));
 
-                        channel.close();
-                   }
+                  channel.close();
             } catch (IOException exception) {
                   exception.printStackTrace();
             }
       }
+
+      /**
+       * Hands the connection of this channel over to another service. The channel is closed but
+       * its socket is left open. This must only be called by the reactor thread, while the buffer
+       * is in read mode.
+       * 
+       * @return The bytes that were read and not yet decoded.
+       */
+      public ByteBuffer detach() {
+            if (!closed.compareAndSet(false, true)) {
+                  return null;
+            }
+
+            final ByteBuffer pending = ByteBuffer.allocate(buffer.remaining());
+            pending.put(buffer).flip();
+
+            if (selectedKey != null) {
+                  selectedKey.cancel();
+            }
+            reactor.release();
+            releaseBuffers();
+            return pending;
+      }
+
+      /**
+       * Returns the buffers of this closed channel to the pool and stops timing it out.
+       */
+      private void releaseBuffers() {
+            reactor.unwatch(this);
+
+            ByteBuffer message;
+            while ((message = outbound.poll()) != null) {
+                  ByteBufferPool.release(message);
+            }
+            ByteBufferPool.release(buffer);
+      }
 }
@@ -2,36 +2,37 @@ package main.astraeus.net.channel.events;
 
 import java.io.IOException;
 import java.nio.channels.SelectionKey;
-import java.nio.channels.Selector;
 
 import main.astraeus.net.channel.ChannelEvent;
 import main.astraeus.net.channel.PlayerChannel;
 import main.astraeus.net.protocol.codec.login.LoginRequestDecoder;
+import main.astraeus.net.reactor.NetworkReactor;
 
 public final class AcceptChannelEvent extends ChannelEvent {
 
 	/**
-	 * A multiplexor for the validation and identification of key based
-	 * network events.
+	 * The reactor that will handle the network events of the accepted channel.
 	 */
-	private final Selector selector;
+	private final NetworkReactor reactor;
 
 	/**
 	 * The overloaded class constructor used for instantiation of this
 	 * class file.
 	 * 
-	 * @param selector A multiplexor for the validation and identification of
-	 * key based network events.
+	 * @param reactor The reactor that will handle the network events of the
+	 * accepted channel.
 	 */
-	public AcceptChannelEvent(Selector selector) {
-		this.selector = selector;
+	public AcceptChannelEvent(NetworkReactor reactor) {
+		this.reactor = reactor;
 	}
 
 	@Override
 	public void execute(PlayerChannel context) throws IOException {		
 		context.getChannel().configureBlocking(false);		
-		final SelectionKey selectedKey = context.getChannel().register(selector, SelectionKey.OP_READ, context);
+		final SelectionKey selectedKey = context.getChannel().register(reactor.getSelector(), SelectionKey.OP_READ, context);
 		context.setSelectedKey(selectedKey);		
+		context.setReactor(reactor);
 		context.setProtocolDecoder(new LoginRequestDecoder());
+		reactor.watch(context);
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package main.astraeus.net.channel.events;
+
+import java.io.IOException;
+
+import main.astraeus.net.channel.ChannelEvent;
+import main.astraeus.net.channel.PlayerChannel;
+import main.astraeus.net.protocol.ProtocolStateDecoder;
+
+public final class DecodeChannelEvent extends ChannelEvent {
+
+	@Override
+	public void execute(PlayerChannel context) throws IOException {
+
+		/*
+		 * The limit is set to the current position and then the position is set to zero.
+		 */
+		context.getBuffer().flip();
+
+		/*
+		 * Performs the protocol translations. A decoder that hands over to the next stage
+		 * leaves the remaining bytes for it, so the next stage runs straight away.
+		 */
+		ProtocolStateDecoder decoder;
+		do {
+			decoder = context.getProtocolDecoder();
+			decoder.decode(context);
+		} while (!context.isClosed() && decoder != context.getProtocolDecoder());
+
+		if (context.isClosed()) {
+			return;
+		}
+
+		/*
+		 * Moves the bytes of a partial frame to the start of the buffer, the position is
+		 * set after them and the limit is set to the capacity.
+		 */
+		context.getBuffer().compact();
+	}
+}
@@ -11,28 +11,30 @@ public final class ReadChannelEvent extends ChannelEvent {
 	public void execute(PlayerChannel context) {
 		try {
 
+			/*
+			 * A partial frame fills the whole buffer, it needs more room before the rest can be read.
+			 */
+			if (!context.getBuffer().hasRemaining() && !context.expandBuffer()) {
+				context.close();
+				return;
+			}
+
 			/*
 			 * Determines if the channel produces a valid sequence of bytes.
 			 */
 			if (context.getChannel().read(context.getBuffer()) != -1) {
+				context.setLastRead(System.nanoTime());
+				new DecodeChannelEvent().execute(context);
+			} else {
 
 				/*
-				 * The limit is set to the current position and then the position is set to zero.
-				 */
-				context.getBuffer().flip();
-
-				/*
-				 * Performs the protocol translations.
-				 */
-				context.getProtocolDecoder().decode(context);
-
-				/*
-				 * Clears this buffer. The position is set to zero, the limit is set to the capacity.
+				 * The end of the stream has been reached, a key left open would be selected
+				 * again on every select.
 				 */
-				context.getBuffer().clear();
+				context.close();
 			}
 		} catch (IOException exception) {
 			context.close();
 		}
 	}
-}
\ No newline at end of file
+}
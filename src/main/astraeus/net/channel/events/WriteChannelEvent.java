@@ -57,13 +57,8 @@ public final class WriteChannelEvent extends ChannelEvent {
 		buffer.getBuffer().flip();
 
 		/*
-		 * Writes a sequence of bytes to the specified channel.
+		 * Queues the sequence of bytes, the channel writes it as soon as the socket accepts it.
 		 */
-		context.getChannel().write(buffer.getBuffer());
-
-		/*
-		 * Clears this buffer. The position is set to zero, the limit is set to the capacity.
-		 */
-		buffer.getBuffer().clear();
+		context.queue(buffer.getBuffer());
 	}
 }
\ No newline at end of file
@@ -0,0 +1,206 @@
+package main.astraeus.net.ondemand;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only view of the client's file cache. The data file and its indices are memory-mapped,
+ * so the sectors of a file are served straight from the page cache without being copied onto the
+ * heap.
+ * <p>
+ * The data file is split into sectors of {@link #SECTOR_SIZE} bytes, each starting with a header
+ * that names the file, the part of the file and the next sector. An index holds an entry of
+ * {@link #INDEX_SIZE} bytes per file: its length and its first sector.
+ */
+public final class FileCache {
+
+      /**
+       * The name of the data file.
+       */
+      public static final String DATA_FILE = "main_file_cache.dat";
+
+      /**
+       * The name of an index file, without its number.
+       */
+      public static final String INDEX_FILE = "main_file_cache.idx";
+
+      /**
+       * The size of an index entry.
+       */
+      public static final int INDEX_SIZE = 6;
+
+      /**
+       * The size of a sector, including its header.
+       */
+      public static final int SECTOR_SIZE = 520;
+
+      /**
+       * The size of the header of a sector.
+       */
+      public static final int SECTOR_HEADER_SIZE = 8;
+
+      /**
+       * The amount of file data a sector can hold.
+       */
+      public static final int SECTOR_DATA_SIZE = SECTOR_SIZE - SECTOR_HEADER_SIZE;
+
+      /**
+       * The amount of indices of the cache.
+       */
+      public static final int INDEX_COUNT = 5;
+
+      /**
+       * The mapped data file.
+       */
+      private final MappedByteBuffer data;
+
+      /**
+       * The mapped index files, indexed by number.
+       */
+      private final MappedByteBuffer[] indices;
+
+      /**
+       * Creates a new {@link FileCache}.
+       * 
+       * @param data The mapped data file.
+       * 
+       * @param indices The mapped index files, indexed by number.
+       */
+      private FileCache(MappedByteBuffer data, MappedByteBuffer[] indices) {
+            this.data = data;
+            this.indices = indices;
+      }
+
+      /**
+       * Determines if a directory holds a cache.
+       * 
+       * @param directory The directory of interest.
+       * 
+       * @return {@code true} if the data file and every index exist.
+       */
+      public static boolean exists(Path directory) {
+            if (!Files.isRegularFile(directory.resolve(DATA_FILE))) {
+                  return false;
+            }
+            for (int index = 0; index < INDEX_COUNT; index++) {
+                  if (!Files.isRegularFile(directory.resolve(INDEX_FILE + index))) {
+                        return false;
+                  }
+            }
+            return true;
+      }
+
+      /**
+       * Maps the cache of a directory.
+       * 
+       * @param directory The directory of interest.
+       * 
+       * @return The mapped cache.
+       * 
+       * @throws IOException The exception thrown if a file could not be mapped.
+       */
+      public static FileCache open(Path directory) throws IOException {
+            final MappedByteBuffer data = map(directory.resolve(DATA_FILE));
+            final MappedByteBuffer[] indices = new MappedByteBuffer[INDEX_COUNT];
+
+            for (int index = 0; index < INDEX_COUNT; index++) {
+                  indices[index] = map(directory.resolve(INDEX_FILE + index));
+            }
+            return new FileCache(data, indices);
+      }
+
+      /**
+       * Maps a whole file, the mapping stays valid after its channel is closed.
+       * 
+       * @param path The path of the file.
+       * 
+       * @return The mapped file.
+       * 
+       * @throws IOException The exception thrown if the file could not be mapped.
+       */
+      private static MappedByteBuffer map(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                  return channel.map(MapMode.READ_ONLY, 0, channel.size());
+            }
+      }
+
+      /**
+       * Returns the amount of files of an index.
+       * 
+       * @param index The number of the index.
+       * 
+       * @return The amount of files.
+       */
+      public int getFileCount(int index) {
+            return indices[index].capacity() / INDEX_SIZE;
+      }
+
+      /**
+       * Returns the data of a file as views of the sectors it is stored in, in order. The views
+       * share the mapped data file, nothing is copied.
+       * 
+       * @param index The number of the index.
+       * 
+       * @param file The id of the file.
+       * 
+       * @return The views, or {@code null} if the file doesn't exist or its sectors are corrupt.
+       */
+      public ByteBuffer[] getSectors(int index, int file) {
+            if (index < 0 || index >= INDEX_COUNT || file < 0 || file >= getFileCount(index)) {
+                  return null;
+            }
+
+            final int entry = file * INDEX_SIZE;
+            final int length = getMedium(indices[index], entry);
+            int sector = getMedium(indices[index], entry + 3);
+
+            if (length <= 0) {
+                  return null;
+            }
+
+            final ByteBuffer[] sectors = new ByteBuffer[(length + SECTOR_DATA_SIZE - 1) / SECTOR_DATA_SIZE];
+
+            for (int part = 0, remaining = length; part < sectors.length; part++) {
+                  final long position = (long) sector * SECTOR_SIZE;
+                  final int size = Math.min(remaining, SECTOR_DATA_SIZE);
+
+                  if (sector <= 0 || position + SECTOR_HEADER_SIZE + size > data.capacity()) {
+                        return null;
+                  }
+
+                  final int offset = (int) position;
+
+                  if ((data.getShort(offset) & 0xFFFF) != file || (data.getShort(offset + 2) & 0xFFFF) != part
+                              || (data.get(offset + 7) & 0xFF) != index) {
+                        return null;
+                  }
+
+                  final ByteBuffer view = data.duplicate();
+                  view.limit(offset + SECTOR_HEADER_SIZE + size).position(offset + SECTOR_HEADER_SIZE);
+                  sectors[part] = view.slice();
+
+                  remaining -= size;
+                  sector = getMedium(data, offset + 4);
+            }
+            return sectors;
+      }
+
+      /**
+       * Reads an unsigned, big endian, 24 bit value.
+       * 
+       * @param buffer The buffer to read from.
+       * 
+       * @param offset The offset of the value.
+       * 
+       * @return The value.
+       */
+      private static int getMedium(ByteBuffer buffer, int offset) {
+            return (buffer.get(offset) & 0xFF) << 16 | (buffer.get(offset + 1) & 0xFF) << 8 | buffer.get(offset + 2) & 0xFF;
+      }
+}
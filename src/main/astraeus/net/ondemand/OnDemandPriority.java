@@ -0,0 +1,62 @@
+package main.astraeus.net.ondemand;
+
+/**
+ * The priorities the client attaches to its on-demand requests, higher priorities are always
+ * served first.
+ */
+public enum OnDemandPriority {
+
+      /**
+       * A file the client is waiting on to draw the scene.
+       */
+      URGENT(2),
+
+      /**
+       * A file requested while the client is on the login screen.
+       */
+      PRELOAD(1),
+
+      /**
+       * A file the client fetches ahead of time in the background.
+       */
+      PREFETCH(0);
+
+      /**
+       * The value sent by the client.
+       */
+      private final int value;
+
+      /**
+       * Creates a new {@link OnDemandPriority}.
+       * 
+       * @param value The value sent by the client.
+       */
+      private OnDemandPriority(int value) {
+            this.value = value;
+      }
+
+      /**
+       * Returns the priority of a value sent by the client.
+       * 
+       * @param value The value of interest.
+       * 
+       * @return The priority, or {@code null} if the value isn't a request, such as a heartbeat.
+       */
+      public static OnDemandPriority valueOf(int value) {
+            for (OnDemandPriority priority : values()) {
+                  if (priority.value == value) {
+                        return priority;
+                  }
+            }
+            return null;
+      }
+
+      /**
+       * Returns the value sent by the client.
+       * 
+       * @return The returned value.
+       */
+      public int getValue() {
+            return value;
+      }
+}
@@ -0,0 +1,153 @@
+package main.astraeus.net.ondemand;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A file requested by a client, along with how much of it has been sent.
+ */
+public final class OnDemandRequest {
+
+      /**
+       * The type of the file, the number of its index minus one.
+       */
+      private final int type;
+
+      /**
+       * The id of the file.
+       */
+      private final int file;
+
+      /**
+       * The priority the client attached to this request.
+       */
+      private OnDemandPriority priority;
+
+      /**
+       * The views of the sectors holding the file, set once the file starts being sent.
+       */
+      private ByteBuffer[] sectors;
+
+      /**
+       * The length of the file.
+       */
+      private int length;
+
+      /**
+       * The amount of bytes of the file that have been sent.
+       */
+      private int offset;
+
+      /**
+       * Creates a new {@link OnDemandRequest}.
+       * 
+       * @param type The type of the file.
+       * 
+       * @param file The id of the file.
+       * 
+       * @param priority The priority the client attached to this request.
+       */
+      public OnDemandRequest(int type, int file, OnDemandPriority priority) {
+            this.type = type;
+            this.file = file;
+            this.priority = priority;
+      }
+
+      /**
+       * Looks the file up in the cache.
+       * 
+       * @param cache The cache of interest.
+       * 
+       * @return {@code true} if the file exists.
+       */
+      boolean resolve(FileCache cache) {
+            sectors = cache.getSectors(type + 1, file);
+            if (sectors == null) {
+                  return false;
+            }
+            for (ByteBuffer sector : sectors) {
+                  length += sector.remaining();
+            }
+            return length <= 0xFFFF;
+      }
+
+      /**
+       * Returns the type of the file.
+       * 
+       * @return The returned type.
+       */
+      public int getType() {
+            return type;
+      }
+
+      /**
+       * Returns the id of the file.
+       * 
+       * @return The returned id.
+       */
+      public int getFile() {
+            return file;
+      }
+
+      /**
+       * Returns the priority the client attached to this request.
+       * 
+       * @return The returned priority.
+       */
+      public OnDemandPriority getPriority() {
+            return priority;
+      }
+
+      /**
+       * Modifies the priority the client attached to this request.
+       * 
+       * @param priority The new modification.
+       */
+      public void setPriority(OnDemandPriority priority) {
+            this.priority = priority;
+      }
+
+      /**
+       * Returns the views of the sectors holding the file.
+       * 
+       * @return The returned views.
+       */
+      ByteBuffer[] getSectors() {
+            return sectors;
+      }
+
+      /**
+       * Returns the length of the file.
+       * 
+       * @return The returned length.
+       */
+      public int getLength() {
+            return length;
+      }
+
+      /**
+       * Returns the amount of bytes of the file that have been sent.
+       * 
+       * @return The returned amount.
+       */
+      public int getOffset() {
+            return offset;
+      }
+
+      /**
+       * Modifies the amount of bytes of the file that have been sent.
+       * 
+       * @param offset The new modification.
+       */
+      public void setOffset(int offset) {
+            this.offset = offset;
+      }
+
+      /**
+       * Determines if the whole file has been sent.
+       * 
+       * @return {@code true} if it has.
+       */
+      public boolean isComplete() {
+            return offset >= length;
+      }
+}
@@ -0,0 +1,263 @@
+package main.astraeus.net.ondemand;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Serves the files of the cache to clients that connected with the file server opcode. It owns a
+ * selector and a thread of its own, so update traffic never competes with the reactors that
+ * handle game connections.
+ * <p>
+ * Clients that have something to send take turns, each sending at most
+ * {@link main.astraeus.net.NetworkConstants#ONDEMAND_CHUNKS_PER_TURN} chunks before it goes to
+ * the back of the line, so a client fetching the whole cache can't starve one that only needs a
+ * single map.
+ */
+public final class OnDemandService implements Runnable {
+
+      /**
+       * The single logger for this class.
+       */
+      private static final Logger logger = Logger.getLogger(OnDemandService.class.getName());
+
+      /**
+       * The running service, or {@code null} if there is no cache to serve.
+       */
+      private static volatile OnDemandService service;
+
+      /**
+       * The cache files are served from.
+       */
+      private final FileCache cache;
+
+      /**
+       * A multiplexor for the validation and identification of key based network events.
+       */
+      private final Selector selector;
+
+      /**
+       * The channels handed over by the game reactors, waiting to be registered.
+       */
+      private final Queue<OnDemandSession> transfers = new ConcurrentLinkedQueue<>();
+
+      /**
+       * The sessions waiting for their turn to send, in order.
+       */
+      private final ArrayDeque<OnDemandSession> turns = new ArrayDeque<>();
+
+      /**
+       * The flag that denotes a wake up has already been requested for the current select.
+       */
+      private final AtomicBoolean wakeupRequested = new AtomicBoolean();
+
+      /**
+       * The thread that is blocking on the selector.
+       */
+      private Thread thread;
+
+      /**
+       * The flag that denotes this service is running.
+       */
+      private volatile boolean running;
+
+      /**
+       * Creates a new {@link OnDemandService}.
+       * 
+       * @param cache The cache files are served from.
+       * 
+       * @throws IOException The exception thrown if the selector could not be opened.
+       */
+      private OnDemandService(FileCache cache) throws IOException {
+            this.cache = cache;
+            this.selector = Selector.open();
+      }
+
+      /**
+       * Starts serving the cache of a directory, nothing happens if the directory holds no cache.
+       * 
+       * @param directory The directory of interest.
+       * 
+       * @throws IOException The exception thrown if the cache could not be mapped.
+       */
+      public static void start(Path directory) throws IOException {
+            if (!FileCache.exists(directory)) {
+                  logger.info(String.format("No cache found in %s, the file server is disabled.", directory));
+                  return;
+            }
+            service = new OnDemandService(FileCache.open(directory));
+            service.running = true;
+            service.thread = new Thread(service, "OnDemandService");
+            service.thread.start();
+      }
+
+      /**
+       * Stops the service and closes every connection.
+       */
+      public static void shutdown() {
+            final OnDemandService current = service;
+            if (current == null) {
+                  return;
+            }
+            service = null;
+            current.running = false;
+            current.selector.wakeup();
+            try {
+                  current.thread.join();
+            } catch (InterruptedException exception) {
+                  Thread.currentThread().interrupt();
+            }
+      }
+
+      /**
+       * Hands a connection over to the service.
+       * 
+       * @param channel The channel of the client.
+       * 
+       * @param pending The bytes the client sent after the file server opcode.
+       * 
+       * @return {@code false} if the service isn't running.
+       */
+      public static boolean transfer(SocketChannel channel, ByteBuffer pending) {
+            final OnDemandService current = service;
+            if (current == null) {
+                  return false;
+            }
+            current.transfers.add(new OnDemandSession(channel, pending));
+            if (current.wakeupRequested.compareAndSet(false, true)) {
+                  current.selector.wakeup();
+            }
+            return true;
+      }
+
+      @Override
+      public void run() {
+            try {
+                  while (running) {
+
+                        /*
+                         * Sessions waiting for their turn must not wait for a network event.
+                         */
+                        if (turns.isEmpty()) {
+                              selector.select();
+                        } else {
+                              selector.selectNow();
+                        }
+                        wakeupRequested.set(false);
+
+                        register();
+
+                        final Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+
+                        while (iterator.hasNext()) {
+                              final SelectionKey selection = iterator.next();
+                              iterator.remove();
+                              handle(selection);
+                        }
+
+                        serve();
+                  }
+            } catch (IOException | ClosedSelectorException exception) {
+                  logger.log(Level.SEVERE, "The file server has failed.", exception);
+            } finally {
+                  close();
+            }
+      }
+
+      /**
+       * Registers the connections handed over since the last select.
+       */
+      private void register() {
+            OnDemandSession session;
+            while ((session = transfers.poll()) != null) {
+                  try {
+                        session.getChannel().configureBlocking(false);
+                        session.setKey(session.getChannel().register(selector, SelectionKey.OP_READ, session));
+                        session.decode(cache);
+                        schedule(session);
+                  } catch (IOException exception) {
+                        session.close();
+                  }
+            }
+      }
+
+      /**
+       * Handles a single selected key.
+       * 
+       * @param selection The key that was selected.
+       */
+      private void handle(SelectionKey selection) {
+            final OnDemandSession session = (OnDemandSession) selection.attachment();
+
+            try {
+                  if (selection.isValid() && selection.isReadable()) {
+                        session.read(cache);
+                  }
+                  schedule(session);
+            } catch (IOException exception) {
+                  session.close();
+            }
+      }
+
+      /**
+       * Gives every session that was waiting a single turn.
+       */
+      private void serve() {
+            for (int remaining = turns.size(); remaining > 0; remaining--) {
+                  final OnDemandSession session = turns.poll();
+                  session.setScheduled(false);
+
+                  try {
+                        if (session.isOpen() && session.serve(cache)) {
+                              schedule(session);
+                        }
+                  } catch (IOException exception) {
+                        session.close();
+                  }
+            }
+      }
+
+      /**
+       * Puts a session at the back of the line if it has something to send.
+       * 
+       * @param session The session of interest.
+       */
+      private void schedule(OnDemandSession session) {
+            if (!session.isScheduled() && session.isOpen() && session.hasWork()) {
+                  session.setScheduled(true);
+                  turns.add(session);
+            }
+      }
+
+      /**
+       * Closes every connection and the selector itself.
+       */
+      private void close() {
+            OnDemandSession session;
+            while ((session = transfers.poll()) != null) {
+                  session.close();
+            }
+
+            for (SelectionKey key : selector.keys()) {
+                  ((OnDemandSession) key.attachment()).close();
+            }
+
+            try {
+                  selector.close();
+            } catch (IOException exception) {
+                  logger.log(Level.WARNING, "Could not close the file server.", exception);
+            }
+            logger.info("The file server has shut down.");
+      }
+}
@@ -0,0 +1,378 @@
+package main.astraeus.net.ondemand;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import main.astraeus.net.NetworkConstants;
+
+/**
+ * A client connected to the {@link OnDemandService}. Requests wait in a queue per
+ * {@link OnDemandPriority} and are answered in chunks, each made of a small header and views of
+ * the mapped sectors that are handed to a single gathering write.
+ */
+public final class OnDemandSession {
+
+      /**
+       * The single logger for this class.
+       */
+      private static final Logger logger = Logger.getLogger(OnDemandSession.class.getName());
+
+      /**
+       * The size of a request sent by the client.
+       */
+      private static final int REQUEST_SIZE = 4;
+
+      /**
+       * The size of the header of a chunk.
+       */
+      private static final int CHUNK_HEADER_SIZE = 6;
+
+      /**
+       * The channel of the client.
+       */
+      private final SocketChannel channel;
+
+      /**
+       * The bytes read from the client that don't make a whole request yet.
+       */
+      private final ByteBuffer input;
+
+      /**
+       * The requests waiting to be served, indexed by priority ordinal.
+       */
+      private final ArrayDeque<OnDemandRequest>[] queues;
+
+      /**
+       * The headers of the chunks of the current batch.
+       */
+      private final ByteBuffer headers =
+                  ByteBuffer.allocateDirect(NetworkConstants.ONDEMAND_CHUNKS_PER_TURN * CHUNK_HEADER_SIZE);
+
+      /**
+       * The buffers of the current batch, a header and at most two sector views per chunk.
+       */
+      private final ByteBuffer[] batch = new ByteBuffer[1 + NetworkConstants.ONDEMAND_CHUNKS_PER_TURN * 3];
+
+      /**
+       * The index of the first buffer of the batch that hasn't been written completely.
+       */
+      private int batchOffset;
+
+      /**
+       * The amount of buffers in the batch.
+       */
+      private int batchCount;
+
+      /**
+       * The amount of requests waiting in the queues.
+       */
+      private int queued;
+
+      /**
+       * The request that is being sent.
+       */
+      private OnDemandRequest current;
+
+      /**
+       * The token representing the registration of the channel.
+       */
+      private SelectionKey key;
+
+      /**
+       * The flag that denotes this session waits for its turn to be served.
+       */
+      private boolean scheduled;
+
+      /**
+       * Creates a new {@link OnDemandSession}.
+       * 
+       * @param channel The channel of the client.
+       * 
+       * @param pending The bytes the client sent before the session was created.
+       */
+      @SuppressWarnings({ "rawtypes", "unchecked" })
+      OnDemandSession(SocketChannel channel, ByteBuffer pending) {
+            this.channel = channel;
+            this.queues = new ArrayDeque[OnDemandPriority.values().length];
+            for (int index = 0; index < queues.length; index++) {
+                  queues[index] = new ArrayDeque<>();
+            }
+            this.input = ByteBuffer.allocate(Math.max(REQUEST_SIZE * 64, pending.remaining()));
+            this.input.put(pending);
+
+            /*
+             * The client skips eight bytes before it reads any file.
+             */
+            batch[batchCount++] = ByteBuffer.allocate(8);
+      }
+
+      /**
+       * Reads the requests sent by the client.
+       * 
+       * @param cache The cache the requests are served from.
+       * 
+       * @throws IOException The exception thrown if the channel could not be read.
+       */
+      void read(FileCache cache) throws IOException {
+            if (channel.read(input) == -1) {
+                  close();
+                  return;
+            }
+            decode(cache);
+      }
+
+      /**
+       * Queues every whole request in the input buffer.
+       * 
+       * @param cache The cache the requests are served from.
+       */
+      void decode(FileCache cache) {
+            input.flip();
+
+            while (input.remaining() >= REQUEST_SIZE) {
+                  final int type = input.get() & 0xFF;
+                  final int file = input.getShort() & 0xFFFF;
+                  final OnDemandPriority priority = OnDemandPriority.valueOf(input.get() & 0xFF);
+
+                  /*
+                   * Heartbeats carry a priority that isn't a request.
+                   */
+                  if (priority == null) {
+                        continue;
+                  }
+
+                  if (type + 1 >= FileCache.INDEX_COUNT || file >= cache.getFileCount(type + 1)) {
+                        logger.log(Level.FINE, String.format("Invalid on-demand request %d:%d.", type, file));
+                        continue;
+                  }
+
+                  if (!request(type, file, priority)) {
+                        close();
+                        return;
+                  }
+            }
+            input.compact();
+      }
+
+      /**
+       * Queues a request, a file that is already queued at a lower priority is moved up instead.
+       * 
+       * @param type The type of the file.
+       * 
+       * @param file The id of the file.
+       * 
+       * @param priority The priority of the request.
+       * 
+       * @return {@code false} if the client has too many requests waiting.
+       */
+      private boolean request(int type, int file, OnDemandPriority priority) {
+            if (current != null && current.getType() == type && current.getFile() == file) {
+                  return true;
+            }
+
+            for (int index = 0; index < queues.length; index++) {
+                  final Iterator<OnDemandRequest> iterator = queues[index].iterator();
+
+                  while (iterator.hasNext()) {
+                        final OnDemandRequest request = iterator.next();
+
+                        if (request.getType() != type || request.getFile() != file) {
+                              continue;
+                        }
+
+                        if (priority.ordinal() < index) {
+                              iterator.remove();
+                              request.setPriority(priority);
+                              queues[priority.ordinal()].add(request);
+                        }
+                        return true;
+                  }
+            }
+
+            if (queued == NetworkConstants.ONDEMAND_REQUEST_LIMIT) {
+                  return false;
+            }
+            queues[priority.ordinal()].add(new OnDemandRequest(type, file, priority));
+            queued++;
+            return true;
+      }
+
+      /**
+       * Sends a batch of at most {@link NetworkConstants#ONDEMAND_CHUNKS_PER_TURN} chunks.
+       * 
+       * @param cache The cache the requests are served from.
+       * 
+       * @return {@code true} if the session has more to send and the channel can take it.
+       * 
+       * @throws IOException The exception thrown if the channel could not be written to.
+       */
+      boolean serve(FileCache cache) throws IOException {
+            if (batchOffset == batchCount) {
+                  prepare(cache);
+            }
+
+            if (batchOffset == batchCount) {
+                  return false;
+            }
+
+            channel.write(batch, batchOffset, batchCount - batchOffset);
+
+            while (batchOffset < batchCount && !batch[batchOffset].hasRemaining()) {
+                  batch[batchOffset++] = null;
+            }
+
+            /*
+             * The socket's send buffer is full, the selector will tell us when it drained.
+             */
+            if (batchOffset < batchCount) {
+                  key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                  return false;
+            }
+            key.interestOps(SelectionKey.OP_READ);
+            return hasWork();
+      }
+
+      /**
+       * Fills the batch with the next chunks, urgent requests before the others.
+       * 
+       * @param cache The cache the requests are served from.
+       */
+      private void prepare(FileCache cache) {
+            batchOffset = batchCount = 0;
+            headers.clear();
+
+            for (int chunks = 0; chunks < NetworkConstants.ONDEMAND_CHUNKS_PER_TURN; chunks++) {
+                  if (current == null && (current = next(cache)) == null) {
+                        break;
+                  }
+
+                  final int offset = current.getOffset();
+                  final int size = Math.min(NetworkConstants.ONDEMAND_CHUNK_SIZE, current.getLength() - offset);
+
+                  final int position = headers.position();
+                  headers.put((byte) current.getType());
+                  headers.putShort((short) current.getFile());
+                  headers.putShort((short) current.getLength());
+                  headers.put((byte) (offset / NetworkConstants.ONDEMAND_CHUNK_SIZE));
+
+                  final ByteBuffer header = headers.duplicate();
+                  header.position(position).limit(position + CHUNK_HEADER_SIZE);
+                  batch[batchCount++] = header;
+
+                  /*
+                   * Chunks and sectors aren't aligned, a chunk spans at most two sectors.
+                   */
+                  for (int from = offset; from < offset + size;) {
+                        final ByteBuffer sector = current.getSectors()[from / FileCache.SECTOR_DATA_SIZE];
+                        final int start = from % FileCache.SECTOR_DATA_SIZE;
+                        final int end = Math.min(sector.limit(), start + offset + size - from);
+
+                        final ByteBuffer view = sector.duplicate();
+                        view.limit(end).position(start);
+                        batch[batchCount++] = view;
+                        from += end - start;
+                  }
+
+                  current.setOffset(offset + size);
+
+                  if (current.isComplete()) {
+                        current = null;
+                  }
+            }
+      }
+
+      /**
+       * Takes the next request that can be served.
+       * 
+       * @param cache The cache the requests are served from.
+       * 
+       * @return The request, or {@code null} if none is waiting.
+       */
+      private OnDemandRequest next(FileCache cache) {
+            for (ArrayDeque<OnDemandRequest> queue : queues) {
+                  OnDemandRequest request;
+                  while ((request = queue.poll()) != null) {
+                        queued--;
+                        if (request.resolve(cache)) {
+                              return request;
+                        }
+                        logger.log(Level.FINE, String.format("Missing on-demand file %d:%d.", request.getType(), request.getFile()));
+                  }
+            }
+            return null;
+      }
+
+      /**
+       * Determines if this session has anything left to send.
+       * 
+       * @return {@code true} if it has.
+       */
+      boolean hasWork() {
+            return batchOffset < batchCount || current != null || queued > 0;
+      }
+
+      /**
+       * Closes the channel of the client.
+       */
+      void close() {
+            if (key != null) {
+                  key.cancel();
+            }
+            try {
+                  channel.close();
+            } catch (IOException exception) {
+                  logger.log(Level.FINE, "Could not close an on-demand connection.", exception);
+            }
+      }
+
+      /**
+       * Determines if the channel of the client is open.
+       * 
+       * @return {@code true} if it is.
+       */
+      boolean isOpen() {
+            return channel.isOpen();
+      }
+
+      /**
+       * Returns an instance of the channel of the client.
+       * 
+       * @return The returned instance.
+       */
+      SocketChannel getChannel() {
+            return channel;
+      }
+
+      /**
+       * Modifies the token representing the registration of the channel.
+       * 
+       * @param key The new modification.
+       */
+      void setKey(SelectionKey key) {
+            this.key = key;
+      }
+
+      /**
+       * Determines if this session waits for its turn to be served.
+       * 
+       * @return {@code true} if it does.
+       */
+      boolean isScheduled() {
+            return scheduled;
+      }
+
+      /**
+       * Modifies the flag that denotes this session waits for its turn to be served.
+       * 
+       * @param scheduled The new modification.
+       */
+      void setScheduled(boolean scheduled) {
+            this.scheduled = scheduled;
+      }
+}
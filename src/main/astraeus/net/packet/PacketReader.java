@@ -76,24 +76,7 @@ public class PacketReader {
        *    @return The byte.
        */
       public int readByte(boolean signed, ByteModification mod) {
-            int value = payload.get();
-            switch (mod) {
-                  case ADDITION:
-                        value = value + 128;
-                        break;
-                        
-                  case SUBTRACTION:
-                        value = 128 - value;
-                        break;
-                        
-                  case NEGATION:
-                        value = -value;
-                        break;
-                        
-                  case STANDARD:                        
-                        break;
-                  
-            }
+            final int value = mod.apply(payload.get());
             return signed ? value : value & 0xFF;
       }
       
@@ -202,11 +185,14 @@ public class PacketReader {
        * @return The short value.
        */
       public int readShort(boolean signed, ByteOrder order, ByteModification mod) {
-            int value = 0;
+            int value;
             switch(order) {
                   case BIG:
-                        value |= readByte(false) << 8;
-                        value |= readByte(false, mod);
+                        value = payload.getShort();
+                        break;
+                        
+                  case LITTLE:
+                        value = Short.reverseBytes(payload.getShort());
                         break;
                         
                   case INVERSE:
@@ -214,12 +200,11 @@ public class PacketReader {
 
                   case MIDDLE:
                         throw new UnsupportedOperationException("Middle-endian short " + "is impossible!");
-                        
-                  case LITTLE:
-                        value |= readByte(false, mod);
-                        value |= readByte(false) << 8;
-                        break;
-            }           
+
+                  default:
+                        throw new IllegalArgumentException("Invalid ordering definition.");
+            }
+            value = (value & 0xFF00) | (mod.apply(value) & 0xFF);
             return signed ? value : value & 0xFFFF;           
       }
       
@@ -304,37 +289,28 @@ public class PacketReader {
        * @return The integer value.
        */
       public int readInt(boolean signed, ByteOrder order, ByteModification mod) {
-            long value = 0;
+            int value;
             switch (order) {
                   case BIG:
-                        value |= readByte(false) << 24;
-                        value |= readByte(false) << 16;
-                        value |= readByte(false) << 8;
-                        value |= readByte(false, mod);
+                        value = payload.getInt();
                         break;
                         
                   case MIDDLE:
-                        value |= readByte(false) << 8;
-                        value |= readByte(false, mod);
-                        value |= readByte(false) << 24;
-                        value |= readByte(false) << 16;
+                        value = Integer.rotateLeft(payload.getInt(), 16);
                         break;   
+
                   case INVERSE:                        
-                        value |= readByte(false) << 16;
-                        value |= readByte(false) << 24;
-                        value |= readByte(false, mod);
-                        value |= readByte(false) << 8;
+                        value = Integer.rotateLeft(Integer.reverseBytes(payload.getInt()), 16);
                         break;
                         
                   case LITTLE:
-                        value |= readByte(false, mod);
-                        value |= readByte(false) << 8;
-                        value |= readByte(false) << 16;
-                        value |= readByte(false) << 24;
+                        value = Integer.reverseBytes(payload.getInt());
                         break;
-               
+
+                  default:
+                        throw new IllegalArgumentException("Invalid ordering definition.");
             }
-            return (int) (signed ? value : value & 0xFFFFFFFFL);
+            return (value & ~0xFF) | (mod.apply(value) & 0xFF);
       }
       
       /**
@@ -415,17 +391,10 @@ public class PacketReader {
        * @return The long value.
        */
       public long readLong(boolean signed, ByteOrder order, ByteModification mod) {
-            long value = 0;
+            long value;
             switch (order) {
                   case BIG:
-                        value |= (long) readByte(false) << 56L;
-                        value |= (long) readByte(false) << 48L;
-                        value |= (long) readByte(false) << 40L;
-                        value |= (long) readByte(false) << 32L;
-                        value |= (long) readByte(false) << 24L;
-                        value |= (long) readByte(false) << 16L;
-                        value |= (long) readByte(false) << 8L;
-                        value |= readByte(false, mod);
+                        value = payload.getLong();
                         break;
                         
                   case MIDDLE:
@@ -433,18 +402,18 @@ public class PacketReader {
                          throw new UnsupportedOperationException("Middle and " + "inverse-middle value types not supported!");
                         
                   case LITTLE:
-                        value |= readByte(false, mod);
-                        value |= (long) readByte(false) << 8L;
-                        value |= (long) readByte(false) << 16L;
-                        value |= (long) readByte(false) << 24L;
-                        value |= (long) readByte(false) << 32L;
-                        value |= (long) readByte(false) << 40L;
-                        value |= (long) readByte(false) << 48L;
-                        value |= (long) readByte(false) << 56L;
+                        value = Long.reverseBytes(payload.getLong());
                         break;
-               
+
+                  default:
+                        throw new IllegalArgumentException("Invalid ordering definition.");
             }
-            return signed ? value : value & 0xFFFFFFFFL;
+
+            /*
+             * A long has no wider type to hold its unsigned value, so both forms share the same
+             * bits.
+             */
+            return (value & ~0xFFL) | (mod.apply((int) value) & 0xFF);
       }
       
       /**
@@ -474,8 +443,11 @@ public class PacketReader {
        */
       public byte[] readBytes(int amount, ByteModification mod) {
             byte[] data = new byte[amount];
-            for (int i = 0; i < amount; i++) {
-                  data[i] = (byte) readByte(mod);
+            payload.get(data);
+            if (mod != ByteModification.STANDARD) {
+                  for (int i = 0; i < amount; i++) {
+                        data[i] = (byte) mod.apply(data[i]);
+                  }
             }
             return data;
       }
@@ -1,9 +1,8 @@
 package main.astraeus.net.packet;
 
 import java.nio.ByteBuffer;
-import java.util.stream.IntStream;
 
-import main.astraeus.net.protocol.ProtocolConstants;
+import main.astraeus.net.buffer.ByteBufferPool;
 import main.astraeus.net.protocol.codec.AccessType;
 import main.astraeus.net.protocol.codec.ByteModification;
 import main.astraeus.net.protocol.codec.ByteOrder;
@@ -30,6 +29,17 @@ public final class PacketWriter {
        */
       private int position = 0;
 
+      /**
+       * The bits written in {@code BIT_ACCESS} mode that do not yet fill a whole byte, held in the
+       * low end of the register.
+       */
+      private long bitRegister;
+
+      /**
+       * The amount of bits held in the bit register, always less than a byte between writes.
+       */
+      private int bitCount;
+
       /**
        * The id of the packet being created.
        */
@@ -71,7 +81,8 @@ public final class PacketWriter {
       }
 
       /**
-       * Allocates memory for this buffer.
+       * Allocates memory for this buffer. The memory is acquired from the {@link ByteBufferPool}
+       * and is returned to it once the message has been written to the channel.
        * 
        * @param allocate
        * 
@@ -80,7 +91,7 @@ public final class PacketWriter {
        * @return The builder.
        */
       public PacketWriter allocate(int allocate) {
-            this.buffer = ByteBuffer.allocate(allocate);
+            this.buffer = ByteBufferPool.acquire(allocate);
             return this;
       }
 
@@ -119,24 +130,7 @@ public final class PacketWriter {
        * @param modification The manipulation of this byte value.
        */
       public PacketWriter write(long value, ByteModification modification) {
-            switch (modification) {
-
-                  case ADDITION:
-                        buffer.put((byte) (value + 128));
-                        break;
-
-                  case NEGATION:
-                        buffer.put((byte) -value);
-                        break;
-
-                  case STANDARD:
-                        buffer.put((byte) value);
-                        break;
-
-                  case SUBTRACTION:
-                        buffer.put((byte) (128 - value));
-                        break;
-            }
+            buffer.put((byte) modification.apply((int) value));
             return this;
       }
 
@@ -152,6 +146,16 @@ public final class PacketWriter {
             return this;
       }
 
+      /**
+       * Writes the bytes from the argued byte array into this buffer, as a single bulk copy.
+       *
+       * @param data the data to write to this buffer.
+       */
+      public PacketWriter writeBytes(byte[] data) {
+            buffer.put(data);
+            return this;
+      }
+
       /**
        * Writes a value as a standard big-endian {@code int}.
        *
@@ -214,33 +218,22 @@ public final class PacketWriter {
        * @param order The order in which the bytes are written.
        */
       public PacketWriter writeInt(int value, ByteModification byteValue, ByteOrder order) {
+            final int modified = (value & ~0xFF) | (byteValue.apply(value) & 0xFF);
             switch (order) {
                   case BIG:
-                        write(value >> 24);
-                        write(value >> 16);
-                        write(value >> 8);
-                        writeByte(value, byteValue);
+                        buffer.putInt(modified);
                         break;
 
                   case INVERSE:
-                        write(value >> 16);
-                        write(value >> 24);
-                        writeByte(value, byteValue);
-                        write(value >> 8);
+                        buffer.putInt(Integer.reverseBytes(Integer.rotateLeft(modified, 16)));
                         break;
 
                   case LITTLE:
-                        writeByte(value, byteValue);
-                        write(value >> 8);
-                        write(value >> 16);
-                        write(value >> 24);
+                        buffer.putInt(Integer.reverseBytes(modified));
                         break;
 
                   case MIDDLE:
-                        write(value >> 8);
-                        writeByte(value, byteValue);
-                        write(value >> 24);
-                        write(value >> 16);
+                        buffer.putInt(Integer.rotateLeft(modified, 16));
                         break;
             }
             return this;
@@ -348,15 +341,14 @@ public final class PacketWriter {
        */
       public final PacketWriter writeShort(int value, ByteModification modification,
                   ByteOrder order) {
+            final short modified = (short) ((value & 0xFF00) | (modification.apply(value) & 0xFF));
             switch (order) {
                   case BIG:
-                        writeByte(value >> 8, ByteModification.STANDARD);
-                        writeByte(value, modification);
+                        buffer.putShort(modified);
                         break;
 
                   case LITTLE:
-                        writeByte(value, modification);
-                        writeByte(value >> 8, ByteModification.STANDARD);
+                        buffer.putShort(Short.reverseBytes(modified));
                         break;
 
                   default:
@@ -366,67 +358,61 @@ public final class PacketWriter {
       }
 
       /**
-       * Places bit values into the internal buffer.
+       * Places bit values into the internal buffer. The bits are packed into a register and only
+       * whole bytes are written, the last partial byte is written when switching back to
+       * {@code BYTE_ACCESS}.
        * 
        * @param value The value of these bits.
        * 
-       * @param amount The amount
+       * @param amount The amount of bits, at most {@code 32}.
        * 
        * @param modification The manipulation of the byte values.
        */
       public PacketWriter writeBits(long value, int amount, ByteModification modification) {
+            bitRegister = (bitRegister << amount) | (value & ((1L << amount) - 1));
+            bitCount += amount;
+            position += amount;
 
-            int bytePosition = this.getPosition() >> 3;
-            int bitOffset = 8 - (this.getPosition() & 7);
+            ensureCapacity(bitCount >> 3);
 
-            this.setPosition(this.getPosition() + amount);
-
-            int requiredSpace = bytePosition - buffer.position() + 1;
-            requiredSpace += (amount + 7) / 8;
-
-            if (buffer.remaining() < requiredSpace) {
-
-                  ByteBuffer old = buffer;
-                  setBuffer(ByteBuffer.allocate(old.capacity() + requiredSpace));
-                  old.flip();
-                  buffer.put(old);
-            }
-            for (; amount > bitOffset; bitOffset = 8) {
-
-                  byte temporary = buffer.get(bytePosition);
-                  temporary &= ~ProtocolConstants.BIT_MASKS[bitOffset];
-                  temporary |= (value >> (amount - bitOffset))
-                              & ProtocolConstants.BIT_MASKS[bitOffset];
-                  buffer.put(bytePosition++, temporary);
-                  amount -= bitOffset;
-            }
-            if (amount == bitOffset) {
-
-                  byte temporary = buffer.get(bytePosition);
-                  temporary &= ~ProtocolConstants.BIT_MASKS[bitOffset];
-                  temporary |= value & ProtocolConstants.BIT_MASKS[bitOffset];
-                  buffer.put(bytePosition, temporary);
-            } else {
-
-                  byte temporary = buffer.get(bytePosition);
-                  temporary &= ~(ProtocolConstants.BIT_MASKS[amount] << (bitOffset - amount));
-                  temporary |= (value & ProtocolConstants.BIT_MASKS[amount]) << (bitOffset
-                              - amount);
-                  buffer.put(bytePosition, temporary);
+            while (bitCount >= 8) {
+                  bitCount -= 8;
+                  buffer.put((byte) (bitRegister >>> bitCount));
             }
             return this;
       }
 
+      /**
+       * Makes sure the internal buffer has room for an amount of bytes, the buffer at least
+       * doubles in capacity when it has to grow.
+       * 
+       * @param required The amount of bytes that are about to be written.
+       */
+      private void ensureCapacity(int required) {
+            if (buffer.remaining() >= required) {
+                  return;
+            }
+            ByteBuffer old = buffer;
+            setBuffer(ByteBufferPool
+                        .acquire(Math.max(old.capacity() << 1, old.position() + required)));
+            old.flip();
+            buffer.put(old);
+            ByteBufferPool.release(old);
+      }
 
       /**
-       * Writes a series of bytes derived from the internal buffer.
+       * Writes the bytes written so far to another buffer, from its start up to its position, as
+       * a single bulk copy. The source buffer is left as it was.
        * 
        * @param source The internal buffer.
        */
       public final PacketWriter writeBytes(ByteBuffer source) {
-            IntStream.range(0, source.position()).forEach(index -> {
-                  writeByte(source.get(index), ByteModification.STANDARD);
-            });
+            ensureCapacity(source.position());
+
+            final int limit = source.limit();
+            source.flip();
+            buffer.put(source);
+            source.limit(limit);
             return this;
       }
 
@@ -484,10 +470,16 @@ public final class PacketWriter {
 
                   case BIT_ACCESS:
                         setPosition(buffer.position() * 8);
+                        bitRegister = 0;
+                        bitCount = 0;
                         break;
 
                   case BYTE_ACCESS:
-                        buffer.position((getPosition() + 7) / 8);
+                        if (bitCount > 0) {
+                              ensureCapacity(1);
+                              buffer.put((byte) (bitRegister << (8 - bitCount)));
+                              bitCount = 0;
+                        }
                         break;
             }
             return this;
@@ -549,6 +541,15 @@ public final class PacketWriter {
             this.position = position;
       }
 
+      /**
+       * Returns the internal buffer to the {@link ByteBufferPool}, for writers whose contents are
+       * not handed to a channel.
+       */
+      public void release() {
+            ByteBufferPool.release(buffer);
+            buffer = null;
+      }
+
       /**
        * Modifies the instance of the internal buffer.
        * 
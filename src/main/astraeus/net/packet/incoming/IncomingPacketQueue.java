@@ -0,0 +1,93 @@
+package main.astraeus.net.packet.incoming;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, lock-free queue of decoded {@link IncomingPacket}s. Packets are offered by the
+ * reactor thread that reads the player's channel and polled by the game thread, exactly one of
+ * each.
+ */
+public final class IncomingPacketQueue {
+
+      /**
+       * The slots of the ring, its length is a power of two.
+       */
+      private final IncomingPacket[] packets;
+
+      /**
+       * The mask used to turn a sequence into a slot.
+       */
+      private final int mask;
+
+      /**
+       * The sequence of the next packet to poll, only advanced by the consumer.
+       */
+      private final AtomicLong head = new AtomicLong();
+
+      /**
+       * The sequence of the next packet to offer, only advanced by the producer.
+       */
+      private final AtomicLong tail = new AtomicLong();
+
+      /**
+       * Creates a new {@link IncomingPacketQueue}.
+       *
+       * @param capacity The amount of packets this queue can hold, rounded up to a power of two.
+       */
+      public IncomingPacketQueue(int capacity) {
+            int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+            this.packets = new IncomingPacket[size];
+            this.mask = size - 1;
+      }
+
+      /**
+       * Adds a packet to the end of this queue, only called by the producer.
+       *
+       * @param packet The packet to add.
+       *
+       * @return {@code true} if the packet was added, {@code false} if this queue is full.
+       */
+      public boolean offer(IncomingPacket packet) {
+            final long sequence = tail.get();
+            if (sequence - head.get() == packets.length) {
+                  return false;
+            }
+            packets[(int) sequence & mask] = packet;
+
+            /*
+             * Publishes the slot to the consumer.
+             */
+            tail.lazySet(sequence + 1);
+            return true;
+      }
+
+      /**
+       * Removes the packet at the front of this queue, only called by the consumer.
+       *
+       * @return The packet, or {@code null} if this queue is empty.
+       */
+      public IncomingPacket poll() {
+            final long sequence = head.get();
+            if (sequence == tail.get()) {
+                  return null;
+            }
+            final int slot = (int) sequence & mask;
+            final IncomingPacket packet = packets[slot];
+            packets[slot] = null;
+
+            /*
+             * Hands the slot back to the producer.
+             */
+            head.lazySet(sequence + 1);
+            return packet;
+      }
+
+      /**
+       * Returns the amount of packets waiting in this queue.
+       *
+       * @return The amount of packets.
+       */
+      public int size() {
+            return (int) (tail.get() - head.get());
+      }
+}
@@ -1,12 +1,16 @@
 package main.astraeus.net.packet.incoming;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import main.astraeus.Configuration;
 import main.astraeus.game.model.entity.mobile.player.Player;
+import main.astraeus.net.NetworkConstants;
 import main.astraeus.net.packet.incoming.impl.ButtonClickPacketListener;
 import main.astraeus.net.packet.incoming.impl.CommandPacketListener;
 import main.astraeus.net.packet.incoming.impl.DialoguePacketListener;
+import main.astraeus.net.packet.incoming.impl.IdleLogoutPacketListener;
 import main.astraeus.net.packet.incoming.impl.MoveItemPacketListener;
 import main.astraeus.net.packet.incoming.impl.NPCInteractionPacketListener;
 import main.astraeus.net.packet.incoming.impl.ObjectInteractionPacketListener;
@@ -22,9 +26,34 @@ import main.astraeus.net.packet.incoming.impl.WalkingPacketListener;
 public final class IncomingPacketRegistration {
 
 	/**
-	 * A collection of the incoming packets that where registered during initialization.
+	 * The single logger for this class.
 	 */
-	private final static Map<Integer, IncomingPacketListener> INCOMING_PACKETS = new HashMap<>();
+	public static final Logger logger = Logger.getLogger(IncomingPacketRegistration.class.getName());
+
+	/**
+	 * The amount of packets handled, indexed by opcode.
+	 */
+	private static final AtomicLongArray INVOCATIONS = new AtomicLongArray(NetworkConstants.PACKETS.length);
+
+	/**
+	 * The cumulative time spent in the listener, in nanoseconds, indexed by opcode.
+	 */
+	private static final AtomicLongArray TOTAL_NANOS = new AtomicLongArray(NetworkConstants.PACKETS.length);
+
+	/**
+	 * The longest time spent in the listener, in nanoseconds, indexed by opcode.
+	 */
+	private static final AtomicLongArray MAXIMUM_NANOS = new AtomicLongArray(NetworkConstants.PACKETS.length);
+
+	/**
+	 * The amount of packets received without a registered listener, indexed by opcode.
+	 */
+	private static final AtomicLongArray UNKNOWN = new AtomicLongArray(NetworkConstants.PACKETS.length);
+
+	/**
+	 * The amount of packets dropped before they could be handled, indexed by opcode.
+	 */
+	private static final AtomicLongArray REJECTED = new AtomicLongArray(NetworkConstants.PACKETS.length);
 
 	/**
 	 * The default class constructor. Populates the packet collection
@@ -39,7 +68,8 @@ public final class IncomingPacketRegistration {
 		registerHandler(new DefaultPacketListener());
 		registerHandler(new RegionalUpdatePacketListener());
 		registerHandler(new MoveItemPacketListener());
-		registerHandler(new NPCInteractionPacketListener());		
+		registerHandler(new NPCInteractionPacketListener());
+		registerHandler(new IdleLogoutPacketListener());
 	}
 
 	/**
@@ -51,7 +81,7 @@ public final class IncomingPacketRegistration {
 		IncomingPacketOpcode annotation = listener.getClass().getAnnotation(IncomingPacketOpcode.class);
 		if (annotation != null) {
 			for (int opcode : annotation.value()) {
-				INCOMING_PACKETS.put(opcode, listener);
+				NetworkConstants.PACKETS[opcode] = listener;
 			}
 		}
 	}
@@ -65,9 +95,104 @@ public final class IncomingPacketRegistration {
 	 * @param player The player association.
 	 */
 	public static final void sendToHandler(IncomingPacket packet, Player player) {
-		IncomingPacketListener listener = INCOMING_PACKETS.get(packet.getOpcode());
-		if (listener != null) {
-			listener.handlePacket(player, packet);			
+		final int opcode = packet.getOpcode();
+		final IncomingPacketListener listener = NetworkConstants.PACKETS[opcode];
+
+		if (listener == null) {
+			UNKNOWN.incrementAndGet(opcode);
+			return;
+		}
+
+		final long start = System.nanoTime();
+		try {
+			listener.handlePacket(player, packet);
+		} finally {
+			final long elapsed = System.nanoTime() - start;
+
+			INVOCATIONS.incrementAndGet(opcode);
+			TOTAL_NANOS.addAndGet(opcode, elapsed);
+			MAXIMUM_NANOS.accumulateAndGet(opcode, elapsed, Math::max);
+
+			if (elapsed > Configuration.SLOW_PACKET_THRESHOLD) {
+				logger.log(Level.WARNING, String.format("Packet %d took %.2f ms to handle for [%s].", opcode, elapsed / 1_000_000.0, player));
+			}
+		}
+	}
+
+	/**
+	 * Records a packet that was dropped before it could be handled.
+	 * 
+	 * @param opcode The opcode of the dropped packet.
+	 */
+	public static final void reject(int opcode) {
+		REJECTED.incrementAndGet(opcode);
+	}
+
+	/**
+	 * Clears the per-opcode metrics, done after every report.
+	 */
+	public static void resetMetrics() {
+		for (int opcode = 0; opcode < INVOCATIONS.length(); opcode++) {
+			INVOCATIONS.set(opcode, 0);
+			TOTAL_NANOS.set(opcode, 0);
+			MAXIMUM_NANOS.set(opcode, 0);
+			UNKNOWN.set(opcode, 0);
+			REJECTED.set(opcode, 0);
 		}
 	}
+
+	/**
+	 * Returns the amount of packets handled for an opcode.
+	 * 
+	 * @param opcode The opcode of interest.
+	 * 
+	 * @return The returned amount.
+	 */
+	public static long getInvocations(int opcode) {
+		return INVOCATIONS.get(opcode);
+	}
+
+	/**
+	 * Returns the cumulative time, in nanoseconds, spent handling an opcode.
+	 * 
+	 * @param opcode The opcode of interest.
+	 * 
+	 * @return The returned time.
+	 */
+	public static long getTotalNanos(int opcode) {
+		return TOTAL_NANOS.get(opcode);
+	}
+
+	/**
+	 * Returns the longest time, in nanoseconds, spent handling an opcode.
+	 * 
+	 * @param opcode The opcode of interest.
+	 * 
+	 * @return The returned time.
+	 */
+	public static long getMaximumNanos(int opcode) {
+		return MAXIMUM_NANOS.get(opcode);
+	}
+
+	/**
+	 * Returns the amount of packets received for an opcode that has no listener.
+	 * 
+	 * @param opcode The opcode of interest.
+	 * 
+	 * @return The returned amount.
+	 */
+	public static long getUnknown(int opcode) {
+		return UNKNOWN.get(opcode);
+	}
+
+	/**
+	 * Returns the amount of packets dropped for an opcode before they could be handled.
+	 * 
+	 * @param opcode The opcode of interest.
+	 * 
+	 * @return The returned amount.
+	 */
+	public static long getRejected(int opcode) {
+		return REJECTED.get(opcode);
+	}
 }
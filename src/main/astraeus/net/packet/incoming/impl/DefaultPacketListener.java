@@ -12,7 +12,7 @@ import main.astraeus.net.packet.incoming.IncomingPacketOpcode;
  * @author SeVen
  */
 @IncomingPacketOpcode({
-	IncomingPacketConstants.FOCUS_CHANGE, IncomingPacketConstants.IDLE_LOGOUT, 77,
+	IncomingPacketConstants.FOCUS_CHANGE, 77,
 	IncomingPacketConstants.CAMERA_MOVEMENT, 78, 36,
 	226, 246, 148, 183, 230, 136, 189, 152, 200, 85, 165, 238, 150} )
 public class DefaultPacketListener implements IncomingPacketListener {
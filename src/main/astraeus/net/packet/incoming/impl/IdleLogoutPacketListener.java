@@ -0,0 +1,22 @@
+package main.astraeus.net.packet.incoming.impl;
+
+import main.astraeus.game.model.entity.mobile.player.Player;
+import main.astraeus.net.packet.incoming.IncomingPacket;
+import main.astraeus.net.packet.incoming.IncomingPacketConstants;
+import main.astraeus.net.packet.incoming.IncomingPacketListener;
+import main.astraeus.net.packet.incoming.IncomingPacketOpcode;
+
+/**
+ * The {@link IncomingPacket} sent by the client once the player has not touched the mouse or the
+ * keyboard for a while. The client keeps sending heartbeats regardless, so this is the only way
+ * an idle player is logged out.
+ */
+@IncomingPacketOpcode(IncomingPacketConstants.IDLE_LOGOUT)
+public class IdleLogoutPacketListener implements IncomingPacketListener {
+
+	@Override
+	public void handlePacket(Player player, IncomingPacket packet) {
+		player.logout();
+	}
+
+}
@@ -63,6 +63,17 @@ public abstract class OutgoingPacket {
             this.writer = new PacketWriter(opcode, header).allocate(allocate);
       }
 
+      /**
+       * Returns the key under which this packet replaces an earlier, unsent packet of the same
+       * opcode while the channel is congested. Only packets whose latest copy is all the client
+       * needs, such as the text of a widget, can be coalesced.
+       * 
+       * @return The key, or {@code -1} if this packet is never coalesced.
+       */
+      public int getCoalescingKey() {
+            return -1;
+      }
+
       /**
        * @return the opcode
        */
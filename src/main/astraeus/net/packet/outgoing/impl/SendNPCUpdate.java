@@ -1,6 +1,9 @@
 package main.astraeus.net.packet.outgoing.impl;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import main.astraeus.game.model.Position;
 import main.astraeus.game.model.World;
@@ -14,6 +17,7 @@ import main.astraeus.game.model.entity.mobile.npc.update.impl.NpcGraphicsUpdateB
 import main.astraeus.game.model.entity.mobile.npc.update.impl.NpcInteractionUpdateBlock;
 import main.astraeus.game.model.entity.mobile.npc.update.impl.NpcSingleHitUpdateBlock;
 import main.astraeus.game.model.entity.mobile.player.Player;
+import main.astraeus.game.model.entity.mobile.update.UpdateFlags.BlockVariant;
 import main.astraeus.game.model.entity.mobile.update.UpdateFlags.UpdateFlag;
 import main.astraeus.net.packet.PacketHeader;
 import main.astraeus.net.packet.PacketWriter;
@@ -27,6 +31,22 @@ import main.astraeus.net.protocol.codec.AccessType;
  */
 public class SendNPCUpdate extends OutgoingPacket {
 
+      /**
+       * The buffer the npc update blocks are gathered in before they are appended to the packet,
+       * kept per encoding thread like the one of {@link SendPlayerUpdate}.
+       */
+      private static final ThreadLocal<ByteBuffer> UPDATE_BLOCKS = ThreadLocal.withInitial(() -> ByteBuffer.allocate(8192));
+
+      /**
+       * The list the npcs near the updated player are put in, one for every encoding thread.
+       */
+      private static final ThreadLocal<List<Npc>> NEARBY = ThreadLocal.withInitial(ArrayList::new);
+
+      /**
+       * The buffer the update blocks of a single npc are encoded in before they are cached.
+       */
+      private static final ThreadLocal<ByteBuffer> ENCODED_BLOCKS = ThreadLocal.withInitial(() -> ByteBuffer.allocate(1024));
+
       /**
        * Creates a new {@link SendNPCUpdate}.
        */
@@ -36,8 +56,10 @@ public class SendNPCUpdate extends OutgoingPacket {
 
       @Override
       public PacketWriter encode(Player player) {
+            final ByteBuffer blocks = UPDATE_BLOCKS.get();
+            blocks.clear();
 
-            PacketWriter update = new PacketWriter();
+            PacketWriter update = new PacketWriter(blocks);
 
             player.getContext().prepare(this, writer);
             
@@ -66,25 +88,25 @@ public class SendNPCUpdate extends OutgoingPacket {
 
             }
 
-            for (final Npc npc : World.getNpcs()) {
+            final List<Npc> nearby = World.getNpcRegions().getWithin(player.getPosition(), Position.VIEWING_DISTANCE, NEARBY.get());
+
+            for (final Npc npc : nearby) {
 
                   if (player.getLocalNpcs().size() >= 255) {
                         break;
                   }
 
-                  if (npc == null || player.getLocalNpcs().contains(npc) || !npc.isRegistered()) {
+                  if (player.getLocalNpcs().contains(npc) || !npc.isRegistered()) {
                         continue;
                   }
 
-                  if (npc.getPosition().isWithinDistance(player.getPosition(),
-                              Position.VIEWING_DISTANCE)) {
-                        addNPC(npc, player, writer);
+                  addNPC(npc, player, writer);
 
-                        if (npc.getUpdateFlags().isUpdateRequired()) {
-                              appendUpdates(npc, update);
-                        }
+                  if (npc.getUpdateFlags().isUpdateRequired()) {
+                        appendUpdates(npc, update);
                   }
             }
+            nearby.clear();
 
             if (update.getBuffer().position() > 0) {
                   writer.writeBits(14, 16383).setAccessType(AccessType.BYTE_ACCESS)
@@ -149,13 +171,59 @@ public class SendNPCUpdate extends OutgoingPacket {
       }
 
       /**
-       * Appends a mask update for an npc.
+       * Appends a mask update for an npc. The update is encoded once per cycle and copied for
+       * every player after the first.
        * 
        * @param npc The npc that the update masks are for.
        * 
        * @param update The update buffer to place data in.
        */
       public void appendUpdates(Npc npc, PacketWriter update) {
+            synchronized (npc) {
+                  byte[] encoded = npc.getUpdateFlags().getEncoded(BlockVariant.OBSERVER);
+
+                  if (encoded == null) {
+                        encoded = encodeUpdates(npc);
+                        npc.getUpdateFlags().setEncoded(BlockVariant.OBSERVER, encoded);
+                  }
+                  gather(update, encoded);
+            }
+      }
+
+      /**
+       * Adds encoded update blocks to the ones gathered so far, replacing the thread's buffer by
+       * one twice as large when the npcs in view have more to send than it holds.
+       * 
+       * @param update The writer of the gathered update blocks.
+       * 
+       * @param encoded The encoded update blocks to add.
+       */
+      private static void gather(PacketWriter update, byte[] encoded) {
+            final ByteBuffer blocks = update.getBuffer();
+
+            if (blocks.remaining() < encoded.length) {
+                  final ByteBuffer larger = ByteBuffer
+                              .allocate(Math.max(blocks.capacity() << 1, blocks.position() + encoded.length));
+                  blocks.flip();
+                  larger.put(blocks);
+                  update.setBuffer(larger);
+                  UPDATE_BLOCKS.set(larger);
+            }
+            update.writeBytes(encoded);
+      }
+
+      /**
+       * Encodes the mask and the update blocks of an npc.
+       * 
+       * @param npc The npc to encode the update for.
+       * 
+       * @return The encoded mask and blocks.
+       */
+      private byte[] encodeUpdates(Npc npc) {
+            final ByteBuffer scratch = ENCODED_BLOCKS.get();
+            scratch.clear();
+
+            final PacketWriter buffer = new PacketWriter(scratch);
 
             int updateMask = 0x0;
 
@@ -192,36 +260,41 @@ public class SendNPCUpdate extends OutgoingPacket {
                   updateMask |= 0x4;
             }
 
-            writer.write(updateMask);
+            buffer.write(updateMask);
 
             if (npc.getUpdateFlags().get(UpdateFlag.ANIMATION)) {
-                  append(new NpcAnimationUpdateBlock(), npc, writer);
+                  append(new NpcAnimationUpdateBlock(), npc, buffer);
             }
 
             if (npc.getUpdateFlags().get(UpdateFlag.DOUBLE_HIT)) {
-                  append(new NpcDoubleHitUpdateBlock(), npc, writer);
+                  append(new NpcDoubleHitUpdateBlock(), npc, buffer);
             }
 
             if (npc.getUpdateFlags().get(UpdateFlag.GRAPHICS)) {
-                  append(new NpcGraphicsUpdateBlock(), npc, writer);
+                  append(new NpcGraphicsUpdateBlock(), npc, buffer);
             }
 
             if (npc.getUpdateFlags().get(UpdateFlag.ENTITY_INTERACTION)) {
-                  append(new NpcInteractionUpdateBlock(), npc, writer);
+                  append(new NpcInteractionUpdateBlock(), npc, buffer);
             }
 
             if (npc.getUpdateFlags().get(UpdateFlag.FORCED_CHAT)
                         && npc.getForcedChat().length() > 0) {
-                  append(new NpcForceChatUpdateBlock(), npc, writer);
+                  append(new NpcForceChatUpdateBlock(), npc, buffer);
             }
 
             if (npc.getUpdateFlags().get(UpdateFlag.SINGLE_HIT)) {
-                  append(new NpcSingleHitUpdateBlock(), npc, writer);
+                  append(new NpcSingleHitUpdateBlock(), npc, buffer);
             }
 
             if (npc.getUpdateFlags().get(UpdateFlag.FACE_COORDINATE)) {
-                  append(new NpcFaceCoordinateUpdateBlock(), npc, writer);
+                  append(new NpcFaceCoordinateUpdateBlock(), npc, buffer);
             }
+
+            final byte[] encoded = new byte[scratch.position()];
+            scratch.flip();
+            scratch.get(encoded);
+            return encoded;
       }
 
 }
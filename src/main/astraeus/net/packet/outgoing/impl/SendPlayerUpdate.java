@@ -1,8 +1,12 @@
 package main.astraeus.net.packet.outgoing.impl;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
+import main.astraeus.game.GameConstants;
 import main.astraeus.game.model.Position;
 import main.astraeus.game.model.World;
 import main.astraeus.game.model.entity.mobile.player.Player;
@@ -17,6 +21,7 @@ import main.astraeus.game.model.entity.mobile.player.update.mask.PlayerForceMove
 import main.astraeus.game.model.entity.mobile.player.update.mask.PlayerGraphicUpdateBlock;
 import main.astraeus.game.model.entity.mobile.player.update.mask.PlayerInteractionUpdateBlock;
 import main.astraeus.game.model.entity.mobile.player.update.mask.PlayerSingleHitUpdateBlock;
+import main.astraeus.game.model.entity.mobile.update.UpdateFlags.BlockVariant;
 import main.astraeus.game.model.entity.mobile.update.UpdateFlags.UpdateFlag;
 import main.astraeus.net.packet.PacketHeader;
 import main.astraeus.net.packet.PacketWriter;
@@ -31,9 +36,54 @@ import main.astraeus.net.protocol.codec.AccessType;
 public final class SendPlayerUpdate extends OutgoingPacket {
 
       /**
-       * The max amount of players that can be added per cycle.
+       * The amount of bits taken up by adding a player and by the end of the player list.
        */
-      private static final int MAX_NEW_PLAYERS_PER_CYCLE = 25;
+      private static final int ADDITION_BITS = 23, END_OF_LIST_BITS = 11;
+
+      /**
+       * The amount of update packets encoded since the metrics were last reset.
+       */
+      private static final AtomicLong PACKETS = new AtomicLong();
+
+      /**
+       * The cumulative size, in bytes, of the update packets encoded since the metrics were last
+       * reset.
+       */
+      private static final AtomicLong PACKET_BYTES = new AtomicLong();
+
+      /**
+       * The size, in bytes, of the largest update packet encoded since the metrics were last reset.
+       */
+      private static final AtomicLong MAXIMUM_PACKET_BYTES = new AtomicLong();
+
+      /**
+       * The amount of update packets that went over the byte budget with the players already in
+       * view alone.
+       */
+      private static final AtomicLong OVER_BUDGET_PACKETS = new AtomicLong();
+
+      /**
+       * The amount of packets that left new players for a later cycle to stay within the byte
+       * budget.
+       */
+      private static final AtomicLong DEFERRED_PACKETS = new AtomicLong();
+
+      /**
+       * The buffer the update blocks are gathered in before they are appended to the packet, one
+       * for every thread that encodes updates so they are never shared or given back. It is
+       * replaced by a larger one when the players in view have more to send than it holds.
+       */
+      private static final ThreadLocal<ByteBuffer> UPDATE_BLOCKS = ThreadLocal.withInitial(() -> ByteBuffer.allocate(8192));
+
+      /**
+       * The list the players near the updated player are put in, one for every encoding thread.
+       */
+      private static final ThreadLocal<List<Player>> NEARBY = ThreadLocal.withInitial(ArrayList::new);
+
+      /**
+       * The buffer the update blocks of a single player are encoded in before they are cached.
+       */
+      private static final ThreadLocal<ByteBuffer> ENCODED_BLOCKS = ThreadLocal.withInitial(() -> ByteBuffer.allocate(1024));
 
       /**
        * Creates a new {@link SendPlayerUpdate}.
@@ -48,7 +98,10 @@ public final class SendPlayerUpdate extends OutgoingPacket {
                   player.send(new SendRegionUpdate());
             }
 
-            PacketWriter update = new PacketWriter(ByteBuffer.allocate(8192));
+            final ByteBuffer blocks = UPDATE_BLOCKS.get();
+            blocks.clear();
+
+            PacketWriter update = new PacketWriter(blocks);
 
             player.getContext().prepare(this, writer);
 
@@ -67,6 +120,11 @@ public final class SendPlayerUpdate extends OutgoingPacket {
 
                   final Player other = iterator.next();
 
+                  /*
+                   * Players in view stay there until they leave the full viewing distance, only new
+                   * players are held to the adapted one, so a shrinking view doesn't drop players
+                   * that are added back with their whole appearance a few cycles later.
+                   */
                   if (World.getPlayers()[other.getSlot()] != null && other.isRegistered()
                               && other.getPosition().isWithinDistance(player.getPosition(),
                                           Position.VIEWING_DISTANCE)) {
@@ -84,25 +142,49 @@ public final class SendPlayerUpdate extends OutgoingPacket {
 
             int playersAdded = 0;
 
-            for (Player other : World.getPlayers()) {
+            boolean crowded = false;
+
+            final List<Player> nearby = World.getPlayerRegions().getWithin(player.getPosition(),
+                        player.getViewingDistance(), NEARBY.get());
+
+            for (Player other : nearby) {
 
-                  if (other == null || !other.isRegistered() || other == player
+                  if (!other.isRegistered() || other == player
                               || player.getLocalPlayers().contains(other)) {
                         continue;
                   }
 
-                  if (other.getLocalPlayers().size() >= 79
-                              || playersAdded > MAX_NEW_PLAYERS_PER_CYCLE) {
+                  if (playersAdded >= GameConstants.MAX_NEW_PLAYERS_PER_CYCLE) {
+                        break;
+                  }
+
+                  if (player.getLocalPlayers().size() >= GameConstants.LOCAL_PLAYER_LIMIT) {
+                        crowded = true;
                         break;
                   }
 
-                  if (other.getPosition().isWithinDistance(player.getPosition(), 15)) {
-                        addPlayer(player, other, writer);
-                        appendUpdates(other, update, true, false);
-                        playersAdded++;
+                  final byte[] appended = getUpdates(other, true, false);
+
+                  /*
+                   * The players already in view are always updated, new players are only added
+                   * while they fit and are otherwise picked up on a later cycle.
+                   */
+                  if (((writer.getPosition() + ADDITION_BITS + END_OF_LIST_BITS + 7) >> 3)
+                              + update.getBuffer().position()
+                              + appended.length > GameConstants.PLAYER_UPDATE_BYTE_BUDGET) {
+                        DEFERRED_PACKETS.incrementAndGet();
+                        crowded = true;
+                        break;
                   }
+
+                  addPlayer(player, other, writer);
+                  gather(update, appended);
+                  playersAdded++;
             }
 
+            nearby.clear();
+            adjustViewingDistance(player, crowded);
+
             if (update.getBuffer().position() > 0) {
                   writer.writeBits(11, 2047).setAccessType(AccessType.BYTE_ACCESS)
                               .writeBytes(update.getBuffer());
@@ -110,9 +192,45 @@ public final class SendPlayerUpdate extends OutgoingPacket {
                   writer.setAccessType(AccessType.BYTE_ACCESS);
             }
 
+            record(writer.getBuffer().position());
             return writer;
       }
 
+      /**
+       * Shrinks the viewing distance of a player by a tile when players had to be left out of
+       * view this cycle, and grows it back a tile at a time once the crowd has thinned.
+       * 
+       * @param player The player to adjust the viewing distance of.
+       * 
+       * @param crowded The flag that denotes players were left out of view.
+       */
+      private static void adjustViewingDistance(Player player, boolean crowded) {
+            final int distance = player.getViewingDistance();
+
+            if (crowded) {
+                  player.setViewingDistance(
+                              Math.max(GameConstants.MINIMUM_VIEWING_DISTANCE, distance - 1));
+            } else if (distance < Position.VIEWING_DISTANCE
+                        && player.getLocalPlayers().size() < GameConstants.SPARSE_LOCAL_PLAYERS) {
+                  player.setViewingDistance(distance + 1);
+            }
+      }
+
+      /**
+       * Records the size of an encoded update packet.
+       * 
+       * @param size The size of the packet, in bytes.
+       */
+      private static void record(int size) {
+            PACKETS.incrementAndGet();
+            PACKET_BYTES.addAndGet(size);
+            MAXIMUM_PACKET_BYTES.accumulateAndGet(size, Math::max);
+
+            if (size > GameConstants.PLAYER_UPDATE_BYTE_BUDGET) {
+                  OVER_BUDGET_PACKETS.incrementAndGet();
+            }
+      }
+
       /**
        * Adds a players to the local player list, and in-view of other players.
        * 
@@ -342,118 +460,259 @@ public final class SendPlayerUpdate extends OutgoingPacket {
       }
 
       /**
-       * Updates the state of a player.
+       * Appends the update blocks of a player. The blocks are encoded once per cycle for every
+       * variant and copied for every observer after the first.
        * 
-       * @param player The player to update the state for.
+       * @param player The player to append the update for.
        * 
-       * @param writer The writer that constructs a packet and stores the data.
+       * @param buffer The buffer the update blocks are gathered in.
        * 
        * @param forceAppearance The flag that determines if this player should be forcefully
        *        updated.
+       * 
+       * @param noChat The flag that determines if the chat is left out, for the player's own view.
        */
       public void appendUpdates(Player player, PacketWriter buffer, boolean forceAppearance,
                   boolean noChat) {
+            final byte[] encoded = getUpdates(player, forceAppearance, noChat);
+
+            if (encoded != null) {
+                  gather(buffer, encoded);
+            }
+      }
+
+      /**
+       * Adds encoded update blocks to the ones gathered so far. The byte budget only holds back
+       * new players, so when the players already in view have more to send than the thread's
+       * buffer holds it is replaced by one twice as large.
+       * 
+       * @param update The writer of the gathered update blocks.
+       * 
+       * @param encoded The encoded update blocks to add.
+       */
+      private static void gather(PacketWriter update, byte[] encoded) {
+            final ByteBuffer blocks = update.getBuffer();
+
+            if (blocks.remaining() < encoded.length) {
+                  final ByteBuffer larger = ByteBuffer
+                              .allocate(Math.max(blocks.capacity() << 1, blocks.position() + encoded.length));
+                  blocks.flip();
+                  larger.put(blocks);
+                  update.setBuffer(larger);
+                  UPDATE_BLOCKS.set(larger);
+            }
+            update.writeBytes(encoded);
+      }
+
+      /**
+       * Returns the update blocks of a player, encoding them if this is the first observer of the
+       * variant this cycle.
+       * 
+       * @param player The player to get the update for.
+       * 
+       * @param forceAppearance The flag that determines if this player should be forcefully
+       *        updated.
+       * 
+       * @param noChat The flag that determines if the chat is left out, for the player's own view.
+       * 
+       * @return The encoded mask and blocks, or {@code null} if no update is required.
+       */
+      private byte[] getUpdates(Player player, boolean forceAppearance, boolean noChat) {
             synchronized (player) {
 
                   if (!player.getUpdateFlags().isUpdateRequired() && !forceAppearance) {
-                        return;
+                        return null;
                   }
 
-                  int mask = 0x0;
+                  final BlockVariant variant = forceAppearance ? BlockVariant.NEW_OBSERVER
+                              : noChat ? BlockVariant.SELF : BlockVariant.OBSERVER;
 
-                  if (player.getUpdateFlags().get(UpdateFlag.APPEARANCE) || forceAppearance) {
-                        mask |= 0x10;
-                  }
+                  byte[] encoded = player.getUpdateFlags().getEncoded(variant);
 
-                  if (player.getUpdateFlags().get(UpdateFlag.GRAPHICS)) {
-                        mask |= 0x100;
+                  if (encoded == null) {
+                        encoded = encodeUpdates(player, forceAppearance, noChat);
+                        player.getUpdateFlags().setEncoded(variant, encoded);
                   }
+                  return encoded;
+            }
+      }
 
-                  if (player.getUpdateFlags().get(UpdateFlag.ANIMATION)) {
-                        mask |= 0x8;
-                  }
+      /**
+       * Encodes the mask and the update blocks of a player.
+       * 
+       * @param player The player to encode the update for.
+       * 
+       * @param forceAppearance The flag that determines if this player should be forcefully
+       *        updated.
+       * 
+       * @param noChat The flag that determines if the chat is left out.
+       * 
+       * @return The encoded mask and blocks.
+       */
+      private byte[] encodeUpdates(Player player, boolean forceAppearance, boolean noChat) {
+            final ByteBuffer scratch = ENCODED_BLOCKS.get();
+            scratch.clear();
 
-                  if (player.getUpdateFlags().get(UpdateFlag.FORCED_CHAT)
-                              && player.getForcedChat().length() > 0) {
-                        mask |= 0x4;
-                  }
+            final PacketWriter buffer = new PacketWriter(scratch);
 
-                  if (player.getUpdateFlags().get(UpdateFlag.CHAT) && !noChat) {
-                        mask |= 0x80;
-                  }
+            int mask = 0x0;
 
-                  if (player.getUpdateFlags().get(UpdateFlag.ENTITY_INTERACTION)) {
-                        mask |= 0x1;
-                  }
+            if (player.getUpdateFlags().get(UpdateFlag.APPEARANCE) || forceAppearance) {
+                  mask |= 0x10;
+            }
 
-                  if (player.getUpdateFlags().get(UpdateFlag.FACE_COORDINATE)) {
-                        mask |= 0x2;
-                  }
+            if (player.getUpdateFlags().get(UpdateFlag.GRAPHICS)) {
+                  mask |= 0x100;
+            }
 
-                  if (player.getUpdateFlags().get(UpdateFlag.SINGLE_HIT)) {
-                        mask |= 0x20;
-                  }
+            if (player.getUpdateFlags().get(UpdateFlag.ANIMATION)) {
+                  mask |= 0x8;
+            }
 
-                  if (player.getUpdateFlags().get(UpdateFlag.SINGLE_HIT)) {
-                        mask |= 0x20;
-                  }
+            if (player.getUpdateFlags().get(UpdateFlag.FORCED_CHAT)
+                        && player.getForcedChat().length() > 0) {
+                  mask |= 0x4;
+            }
 
-                  if (player.getUpdateFlags().get(UpdateFlag.DOUBLE_HIT)) {
-                        mask |= 0x200;
-                  }
+            if (player.getUpdateFlags().get(UpdateFlag.CHAT) && !noChat) {
+                  mask |= 0x80;
+            }
 
-                  if (player.getUpdateFlags().get(UpdateFlag.FORCE_MOVEMENT)) {
-                        mask |= 0x400;
-                  }
+            if (player.getUpdateFlags().get(UpdateFlag.ENTITY_INTERACTION)) {
+                  mask |= 0x1;
+            }
 
-                  if (mask >= 0x100) {
-                        mask |= 0x40;
-                        buffer.write((mask & 0xFF)).write((mask >> 8));
-                  } else {
-                        buffer.write(mask);
-                  }
+            if (player.getUpdateFlags().get(UpdateFlag.FACE_COORDINATE)) {
+                  mask |= 0x2;
+            }
 
-                  if (player.getUpdateFlags().get(UpdateFlag.GRAPHICS)) {
-                        append(new PlayerGraphicUpdateBlock(), player, writer);
-                  }
+            if (player.getUpdateFlags().get(UpdateFlag.SINGLE_HIT)) {
+                  mask |= 0x20;
+            }
 
-                  if (player.getUpdateFlags().get(UpdateFlag.ANIMATION)) {
-                        append(new PlayerAnimationUpdateBlock(), player, writer);
-                  }
+            if (player.getUpdateFlags().get(UpdateFlag.SINGLE_HIT)) {
+                  mask |= 0x20;
+            }
 
-                  if (player.getUpdateFlags().get(UpdateFlag.FORCED_CHAT)
-                              && player.getForcedChat().length() > 0) {
-                        append(new PlayerForceChatUpdateBlock(), player, writer);
-                  }
+            if (player.getUpdateFlags().get(UpdateFlag.DOUBLE_HIT)) {
+                  mask |= 0x200;
+            }
 
-                  if (player.getUpdateFlags().get(UpdateFlag.CHAT) && !noChat) {
-                        append(new PlayerChatUpdateBlock(), player, writer);
-                  }
+            if (player.getUpdateFlags().get(UpdateFlag.FORCE_MOVEMENT)) {
+                  mask |= 0x400;
+            }
 
-                  if (player.getUpdateFlags().get(UpdateFlag.ENTITY_INTERACTION)) {
-                        append(new PlayerInteractionUpdateBlock(), player, writer);
-                  }
+            if (mask >= 0x100) {
+                  mask |= 0x40;
+                  buffer.write((mask & 0xFF)).write((mask >> 8));
+            } else {
+                  buffer.write(mask);
+            }
 
-                  if (player.getUpdateFlags().get(UpdateFlag.APPEARANCE) || forceAppearance) {
-                        append(new PlayerAppearanceUpdateBlock(), player, buffer);
-                  }
+            if (player.getUpdateFlags().get(UpdateFlag.GRAPHICS)) {
+                  append(new PlayerGraphicUpdateBlock(), player, buffer);
+            }
 
-                  if (player.getUpdateFlags().get(UpdateFlag.FORCE_MOVEMENT)) {
-                        append(new PlayerForceMovementUpdateBlock(), player, writer);
-                  }
+            if (player.getUpdateFlags().get(UpdateFlag.ANIMATION)) {
+                  append(new PlayerAnimationUpdateBlock(), player, buffer);
+            }
 
-                  if (player.getUpdateFlags().get(UpdateFlag.FACE_COORDINATE)) {
-                        append(new PlayerFaceCoordinateUpdateBlock(), player, writer);
-                  }
+            if (player.getUpdateFlags().get(UpdateFlag.FORCED_CHAT)
+                        && player.getForcedChat().length() > 0) {
+                  append(new PlayerForceChatUpdateBlock(), player, buffer);
+            }
 
-                  if (player.getUpdateFlags().get(UpdateFlag.SINGLE_HIT)) {
-                        append(new PlayerSingleHitUpdateBlock(), player, writer);
-                  }
+            if (player.getUpdateFlags().get(UpdateFlag.CHAT) && !noChat) {
+                  append(new PlayerChatUpdateBlock(), player, buffer);
+            }
 
-                  if (player.getUpdateFlags().get(UpdateFlag.DOUBLE_HIT)) {
-                        append(new PlayerDoubleHitUpdateBlock(), player, writer);
-                  }
+            if (player.getUpdateFlags().get(UpdateFlag.ENTITY_INTERACTION)) {
+                  append(new PlayerInteractionUpdateBlock(), player, buffer);
             }
+
+            if (player.getUpdateFlags().get(UpdateFlag.APPEARANCE) || forceAppearance) {
+                  append(new PlayerAppearanceUpdateBlock(), player, buffer);
+            }
+
+            if (player.getUpdateFlags().get(UpdateFlag.FORCE_MOVEMENT)) {
+                  append(new PlayerForceMovementUpdateBlock(), player, buffer);
+            }
+
+            if (player.getUpdateFlags().get(UpdateFlag.FACE_COORDINATE)) {
+                  append(new PlayerFaceCoordinateUpdateBlock(), player, buffer);
+            }
+
+            if (player.getUpdateFlags().get(UpdateFlag.SINGLE_HIT)) {
+                  append(new PlayerSingleHitUpdateBlock(), player, buffer);
+            }
+
+            if (player.getUpdateFlags().get(UpdateFlag.DOUBLE_HIT)) {
+                  append(new PlayerDoubleHitUpdateBlock(), player, buffer);
+            }
+
+            final byte[] encoded = new byte[scratch.position()];
+            scratch.flip();
+            scratch.get(encoded);
+            return encoded;
+      }
+
+      /**
+       * Clears the packet size metrics, done after every report.
+       */
+      public static void resetMetrics() {
+            PACKETS.set(0);
+            PACKET_BYTES.set(0);
+            MAXIMUM_PACKET_BYTES.set(0);
+            OVER_BUDGET_PACKETS.set(0);
+            DEFERRED_PACKETS.set(0);
+      }
+
+      /**
+       * Returns the amount of update packets encoded since the metrics were last reset.
+       * 
+       * @return The returned amount.
+       */
+      public static long getPacketCount() {
+            return PACKETS.get();
+      }
+
+      /**
+       * Returns the cumulative size of the update packets encoded since the metrics were last
+       * reset.
+       * 
+       * @return The returned size, in bytes.
+       */
+      public static long getPacketBytes() {
+            return PACKET_BYTES.get();
+      }
+
+      /**
+       * Returns the size of the largest update packet encoded since the metrics were last reset.
+       * 
+       * @return The returned size, in bytes.
+       */
+      public static long getMaximumPacketBytes() {
+            return MAXIMUM_PACKET_BYTES.get();
+      }
+
+      /**
+       * Returns the amount of update packets that went over the byte budget with the players
+       * already in view alone.
+       * 
+       * @return The returned amount.
+       */
+      public static long getOverBudgetPackets() {
+            return OVER_BUDGET_PACKETS.get();
+      }
+
+      /**
+       * Returns the amount of update packets that left new players for a later cycle to stay
+       * within the byte budget.
+       * 
+       * @return The returned amount.
+       */
+      public static long getDeferredPackets() {
+            return DEFERRED_PACKETS.get();
       }
 
 }
@@ -36,6 +36,11 @@ public class SendString extends OutgoingPacket {
             this.widget = widget;
       }
 
+      @Override
+      public int getCoalescingKey() {
+            return widget;
+      }
+
       @Override
       public PacketWriter encode(Player player) {
             player.getContext().prepare(this, writer);
@@ -22,5 +22,29 @@ public enum ByteModification {
     /**
      * Subtract the value from 128.
      */
-    SUBTRACTION
+    SUBTRACTION;
+
+    /**
+     * Performs this modification on the low byte of a value. Every modification is its own
+     * inverse, so the same operation encodes and decodes.
+     * 
+     * @param value The value to modify.
+     * 
+     * @return The modified value, only the low byte is meaningful.
+     */
+    public int apply(int value) {
+        switch (this) {
+            case ADDITION:
+                return value + 128;
+
+            case NEGATION:
+                return -value;
+
+            case SUBTRACTION:
+                return 128 - value;
+
+            default:
+                return value;
+        }
+    }
 }
\ No newline at end of file
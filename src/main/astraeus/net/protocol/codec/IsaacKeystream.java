@@ -0,0 +1,62 @@
+package main.astraeus.net.protocol.codec;
+
+/**
+ * The keystream of an {@link IsaacRandom} that ciphers the opcodes of one direction of a
+ * connection. The values are taken from the generator in bulk, ahead of the opcodes that use them,
+ * so ciphering an opcode never has to wait for a new block of results to be generated.
+ */
+public final class IsaacKeystream {
+
+	/**
+	 * The generator the values are taken from.
+	 */
+	private final IsaacRandom random;
+
+	/**
+	 * The values that were taken from the generator, those from the position onwards are unused.
+	 */
+	private final int[] values = new int[IsaacRandom.SIZE];
+
+	/**
+	 * The index of the next unused value.
+	 */
+	private int position;
+
+	/**
+	 * The overloaded class constructor used for instantiation of
+	 * this class file.
+	 *
+	 * @param random The generator the values are taken from.
+	 */
+	public IsaacKeystream(IsaacRandom random) {
+		this.random = random;
+		random.getNextValues(values, 0, values.length);
+	}
+
+	/**
+	 * Gets the next value, topping the keystream up first if every value was used.
+	 *
+	 * @return The next value.
+	 */
+	public int getNextValue() {
+		if (position == values.length) {
+			refill();
+		}
+		return values[position++];
+	}
+
+	/**
+	 * Replaces the values that were used with the ones that follow the unused values, in a single
+	 * pass over the generator. Called where a delay does not matter, from the same thread that
+	 * takes the values.
+	 */
+	public void refill() {
+		if (position == 0) {
+			return;
+		}
+		final int unused = values.length - position;
+		System.arraycopy(values, position, values, 0, unused);
+		random.getNextValues(values, unused, position);
+		position = 0;
+	}
+}
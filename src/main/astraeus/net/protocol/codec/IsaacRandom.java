@@ -102,9 +102,34 @@ public final class IsaacRandom {
 	}
 
 	/**
-	 * Generates 256 results.
+	 * Gets the next values in bulk, in the same order successive calls to
+	 * {@link #getNextValue()} would return them.
+	 * 
+	 * @param values The array the values are placed into.
+	 * 
+	 * @param offset The index of the first value in the array.
+	 * 
+	 * @param length The amount of values.
+	 */
+	public void getNextValues(int[] values, int offset, int length) {
+		while (length > 0) {
+			if (count == 0) {
+				generate();
+				count = SIZE;
+			}
+			final int amount = Math.min(count, length);
+			for (int i = 0; i < amount; i++) {
+				values[offset++] = results[--count];
+			}
+			length -= amount;
+		}
+	}
+
+	/**
+	 * Generates 256 results. The results that were not handed out yet are lost, so this is only
+	 * called once they are exhausted, or the keystream would fall out of sync with the client.
 	 */
-	public void generate() {
+	private void generate() {
 		int i, j, x, y;
 		result += ++c;
 		for(i = 0, j = SIZE / 2; i < SIZE / 2;) {
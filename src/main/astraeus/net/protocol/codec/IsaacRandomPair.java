@@ -9,14 +9,14 @@ package main.astraeus.net.protocol.codec;
 public final class IsaacRandomPair {
 
 	/**
-	 * The cryptography algorithm for opcode encoding.
+	 * The keystream for opcode encoding.
 	 */
-	private final IsaacRandom encoder;
+	private final IsaacKeystream encoder;
 
 	/**
-	 * The cryptography algorithm for opcode decoding.
+	 * The keystream for opcode decoding.
 	 */
-	private final IsaacRandom decoder;
+	private final IsaacKeystream decoder;
 
 	/**
 	 * The overloaded class constructor used for the instantiation of
@@ -27,25 +27,25 @@ public final class IsaacRandomPair {
 	 * @param decoder The cryptography algorithm for opcode decoding.
 	 */
 	public IsaacRandomPair(IsaacRandom encoder, IsaacRandom decoder) {
-		this.encoder = encoder;
-		this.decoder = decoder;
+		this.encoder = new IsaacKeystream(encoder);
+		this.decoder = new IsaacKeystream(decoder);
 	}
 
 	/**
-	 * Returns an instance of the cryptography algorithm for opcode encoding.
+	 * Returns an instance of the keystream for opcode encoding.
 	 * 
 	 * @return The returned instance.
 	 */
-	public final IsaacRandom getEncoder() {
+	public final IsaacKeystream getEncoder() {
 		return encoder;
 	}
 
 	/**
-	 * Returns an instance of the cryptography algorithm for opcode decoding.
+	 * Returns an instance of the keystream for opcode decoding.
 	 * 
 	 * @return The returned instance.
 	 */
-	public final IsaacRandom getDecoder() {
+	public final IsaacKeystream getDecoder() {
 		return decoder;
 	}
 }
\ No newline at end of file
@@ -32,7 +32,7 @@ public final class GamePacketDecoder implements ProtocolStateDecoder {
       private int opcode = -1;
 
       /**
-       * The default length.
+       * The length of the packet being decoded.
        * 
        * 0 or more Fixed byte length -1 Variable byte length -2 Variable short length
        */
@@ -43,22 +43,40 @@ public final class GamePacketDecoder implements ProtocolStateDecoder {
        */
       private GamePacketDecoderState state = GamePacketDecoderState.OPCODE;
 
+      /**
+       * The header of the packet being decoded.
+       */
       private PacketHeader header = PacketHeader.FIXED;
 
       @Override
       public void decode(PlayerChannel context) throws IOException {
-            while (context.getBuffer().hasRemaining()) {
+            final ByteBuffer buffer = context.getBuffer();
+
+            while (true) {
                   switch (state) {
                         case OPCODE:
-                              opcode(context);
+                              if (!opcode(context, buffer)) {
+
+                                    /*
+                                     * Waiting for the next read, the keystream is topped up
+                                     * without holding up a packet.
+                                     */
+                                    context.getPlayer().getIsaacRandomPair().getEncoder()
+                                                .refill();
+                                    return;
+                              }
                               break;
 
                         case SIZE:
-                              size(context);
+                              if (!size(buffer)) {
+                                    return;
+                              }
                               break;
 
                         case PAYLOAD:
-                              payload(context);
+                              if (!payload(context, buffer)) {
+                                    return;
+                              }
                               break;
                   }
             }
@@ -68,76 +86,97 @@ public final class GamePacketDecoder implements ProtocolStateDecoder {
        * The state that determines this packets opcode.
        * 
        * @param context The channel that this packet is coming from.
+       * 
+       * @param buffer The buffer holding the received bytes.
+       * 
+       * @return {@code true} if the opcode was read.
        */
-      private void opcode(PlayerChannel context) {
-            if (opcode == -1) {
-                  opcode = context.getBuffer().get()
-                              - context.getPlayer().getIsaacRandomPair().getEncoder().getNextValue()
-                              & 0xFF;
-                  size = NetworkConstants.PACKET_SIZES[opcode];
-                  
-                  if (size == -1) {
-                        header = PacketHeader.VARIABLE_BYTE;
-                  } else if (size == -2) {
-                        header = PacketHeader.VARIABLE_SHORT;
-                  } else {
-                        header = PacketHeader.FIXED;
-                  }
-                
+      private boolean opcode(PlayerChannel context, ByteBuffer buffer) {
+            if (!buffer.hasRemaining()) {
+                  return false;
+            }
+
+            opcode = buffer.get()
+                        - context.getPlayer().getIsaacRandomPair().getEncoder().getNextValue()
+                        & 0xFF;
+            size = NetworkConstants.PACKET_SIZES[opcode];
+
+            if (size == ProtocolConstants.VARIABLE_BYTE) {
+                  header = PacketHeader.VARIABLE_BYTE;
+            } else if (size == ProtocolConstants.VARIABLE_SHORT) {
+                  header = PacketHeader.VARIABLE_SHORT;
+            } else {
+                  header = PacketHeader.FIXED;
             }
-            state = size == -1 || size == -2 ? GamePacketDecoderState.SIZE : GamePacketDecoderState.PAYLOAD;
+
+            state = header == PacketHeader.FIXED ? GamePacketDecoderState.PAYLOAD
+                        : GamePacketDecoderState.SIZE;
+            return true;
       }
 
       /**
-       * The state that determines the type of packet.
+       * The state that determines the size of a variable length packet.
        * 
-       * @param context The channel that this packet is coming from.
+       * @param buffer The buffer holding the received bytes.
+       * 
+       * @return {@code true} if the size was read.
        */
-      private void size(PlayerChannel context) {
-            int bytes = size == -1 ? Byte.BYTES : Short.BYTES;
-            
-            if (context.getBuffer().remaining() >= bytes) {
-                  size = 0;
-                  
-                  for(int i = 0; i < bytes; i++) {
-                        size |= context.getBuffer().get() & 0xFF << 8 * (bytes -1 - i);
+      private boolean size(ByteBuffer buffer) {
+            if (header == PacketHeader.VARIABLE_BYTE) {
+                  if (!buffer.hasRemaining()) {
+                        return false;
+                  }
+                  size = buffer.get() & 0xFF;
+            } else {
+                  if (buffer.remaining() < Short.BYTES) {
+                        return false;
                   }
+                  size = buffer.getShort() & 0xFFFF;
             }
-            
+
             state = GamePacketDecoderState.PAYLOAD;
+            return true;
       }
 
       /**
-       * The state that decodes the payload of this packet.
+       * The state that decodes the payload of this packet. The packet is queued for the next game
+       * tick, so its payload is copied out of the channel's buffer, which is compacted after the
+       * read.
        * 
        * @param context The session this packet is coming from.
+       * 
+       * @param buffer The buffer holding the received bytes.
+       * 
+       * @return {@code true} if the packet was complete.
        */
-      private void payload(PlayerChannel context) {
-            try {
-                  if (context.getBuffer().remaining() >= size) {
-                  byte[] payloadLength = new byte[size];
-                  context.getBuffer().get(payloadLength);
+      private boolean payload(PlayerChannel context, ByteBuffer buffer) {
+            if (buffer.remaining() < size) {
+                  return false;
+            }
 
-                  ByteBuffer packetPayload = ByteBuffer.allocate(size);
+            final int limit = buffer.limit();
+            buffer.limit(buffer.position() + size);
+            final ByteBuffer payload = ByteBuffer.allocate(size);
+            payload.put(buffer).flip();
+            buffer.limit(limit);
 
-                  packetPayload.put(payloadLength);
-                  packetPayload.flip();
+            state = GamePacketDecoderState.OPCODE;
 
-                  IncomingPacket packet = new IncomingPacket(opcode, header, packetPayload);
+            IncomingPacket packet = new IncomingPacket(opcode, header, payload);
 
-                  IncomingPacketRegistration.sendToHandler(packet, context.getPlayer());
+            /*
+             * A client that sends faster than the game thread drains its queue loses the excess.
+             */
+            if (!context.getPlayer().getIncomingPackets().offer(packet)) {
+                  IncomingPacketRegistration.reject(opcode);
+                  return true;
+            }
 
-                  if (Configuration.SERVER_DEBUG && context.getPlayer().isServerDebug()
-                              && packet.getOpcode() != 0)
-                        logger.log(Level.INFO, packet.toString());
+            if (Configuration.SERVER_DEBUG && context.getPlayer().isServerDebug()
+                        && packet.getOpcode() != 0)
+                  logger.log(Level.INFO, packet.toString());
 
-                  }
-                  
-            } finally {
-                  state = GamePacketDecoderState.OPCODE;
-                  opcode = -1;
-                  size = -1;
-            }
+            return true;
       }
 
 }
@@ -1,10 +1,10 @@
 package main.astraeus.net.protocol.codec.login;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.security.SecureRandom;
 import java.util.logging.Logger;
 
+import main.astraeus.net.NetworkConstants;
 import main.astraeus.net.channel.PlayerChannel;
 import main.astraeus.net.channel.events.WriteChannelEvent;
 import main.astraeus.net.packet.PacketHeader;
@@ -27,11 +27,12 @@ public final class LoginHeaderDecoder implements ProtocolStateDecoder {
 	@Override
 	public void decode(PlayerChannel context) throws IOException {
 		
-		final PacketWriter response = new PacketWriter(ByteBuffer.allocate(17));		
+		final PacketWriter response = new PacketWriter().allocate(17);		
 		response.write(0);
 		response.writeLong(0);		
 		response.writeLong(random.nextLong());
 		context.execute(new WriteChannelEvent(PacketHeader.EMPTY, response));
+		context.setIdleLimit(NetworkConstants.LOGIN_TIMEOUT);
 		context.setProtocolDecoder(new LoginPayloadDecoder());
 	}
 
@@ -0,0 +1,621 @@
+package main.astraeus.net.protocol.codec.login;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import main.astraeus.Bootstrap;
+import main.astraeus.Configuration;
+import main.astraeus.game.model.World;
+import main.astraeus.game.model.entity.mobile.player.Player;
+import main.astraeus.net.NetworkConstants;
+import main.astraeus.net.channel.PlayerChannel;
+import main.astraeus.net.channel.events.WriteChannelEvent;
+import main.astraeus.net.packet.PacketWriter;
+import main.astraeus.net.protocol.ProtocolConstants;
+import main.astraeus.net.protocol.codec.IsaacRandom;
+import main.astraeus.net.protocol.codec.IsaacRandomPair;
+import main.astraeus.net.protocol.codec.game.GamePacketDecoder;
+import main.astraeus.net.throttle.ConnectionThrottle;
+import main.astraeus.net.throttle.ThrottleType;
+import main.astraeus.utility.LongUtils;
+
+/**
+ * Handles login requests away from the network threads. Each {@link LoginStage} up to the world
+ * registration has its own bounded pool of workers, the registration itself is performed on the
+ * game thread through {@link #process()}.
+ */
+public final class LoginPipeline {
+
+	/**
+	 * The single logger for this class.
+	 */
+	public static final Logger logger = Logger.getLogger(LoginPipeline.class.getName());
+
+	/**
+	 * The workers that decode login blocks.
+	 */
+	private static final ThreadPoolExecutor DECODERS = create("LoginDecoder-%d", NetworkConstants.LOGIN_DECODE_THREADS);
+
+	/**
+	 * The workers that decrypt the secure part of login blocks.
+	 */
+	private static final ThreadPoolExecutor DECRYPTORS = create("LoginDecryptor-%d", NetworkConstants.LOGIN_DECRYPT_THREADS);
+
+	/**
+	 * The workers that load player profiles.
+	 */
+	private static final ThreadPoolExecutor LOADERS = create("LoginLoader-%d", NetworkConstants.LOGIN_LOAD_THREADS);
+
+	/**
+	 * The requests waiting to be registered by the game thread.
+	 */
+	private static final Queue<LoginRequest> REGISTRATIONS = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The amount of requests waiting for each stage, indexed by ordinal.
+	 */
+	private static final AtomicIntegerArray QUEUE_DEPTHS = new AtomicIntegerArray(LoginStage.values().length);
+
+	/**
+	 * The amount of requests that went through each stage, indexed by ordinal.
+	 */
+	private static final AtomicLongArray COMPLETED = new AtomicLongArray(LoginStage.values().length);
+
+	/**
+	 * The cumulative time, in nanoseconds, requests spent waiting in the queue of each stage.
+	 */
+	private static final AtomicLongArray TOTAL_WAIT_NANOS = new AtomicLongArray(LoginStage.values().length);
+
+	/**
+	 * The longest time, in nanoseconds, a request spent waiting in the queue of each stage.
+	 */
+	private static final AtomicLongArray MAXIMUM_WAIT_NANOS = new AtomicLongArray(LoginStage.values().length);
+
+	/**
+	 * The cumulative time, in nanoseconds, requests spent waiting for and in each stage.
+	 */
+	private static final AtomicLongArray TOTAL_NANOS = new AtomicLongArray(LoginStage.values().length);
+
+	/**
+	 * The longest time, in nanoseconds, a request spent waiting for and in each stage.
+	 */
+	private static final AtomicLongArray MAXIMUM_NANOS = new AtomicLongArray(LoginStage.values().length);
+
+	/**
+	 * Prevents instantiation of this class.
+	 */
+	private LoginPipeline() {
+
+	}
+
+	/**
+	 * Creates the bounded pool of workers for a single stage.
+	 *
+	 * @param name The name format of the workers.
+	 *
+	 * @param threads The amount of workers.
+	 *
+	 * @return The created pool.
+	 */
+	private static ThreadPoolExecutor create(String name, int threads) {
+		return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(NetworkConstants.LOGIN_STAGE_CAPACITY),
+				new ThreadFactoryBuilder().setNameFormat(name).setDaemon(true).build());
+	}
+
+	/**
+	 * Starts a login request at its first stage.
+	 *
+	 * @param request The request to start.
+	 */
+	public static void submit(LoginRequest request) {
+		dispatch(request, LoginStage.DECODE);
+	}
+
+	/**
+	 * Registers the requests that went through every other stage, called by the game thread. At
+	 * most {@link NetworkConstants#LOGIN_ADMISSIONS_PER_TICK} players are admitted per tick, so a
+	 * burst of logins is spread over the following ticks. Requests whose client gave up while
+	 * waiting are dropped without taking up an admission.
+	 */
+	public static void process() {
+		LoginRequest request;
+		int admitted = 0;
+
+		while (admitted < NetworkConstants.LOGIN_ADMISSIONS_PER_TICK && (request = REGISTRATIONS.poll()) != null) {
+			if (request.getContext().isClosed()) {
+				QUEUE_DEPTHS.decrementAndGet(LoginStage.REGISTER.ordinal());
+				continue;
+			}
+			perform(request, LoginStage.REGISTER);
+			admitted++;
+		}
+	}
+
+	/**
+	 * Queues a request for a stage.
+	 *
+	 * @param request The request to queue.
+	 *
+	 * @param stage The stage of interest.
+	 */
+	private static void dispatch(LoginRequest request, LoginStage stage) {
+		request.setEnqueued(System.nanoTime());
+		QUEUE_DEPTHS.incrementAndGet(stage.ordinal());
+
+		if (stage == LoginStage.REGISTER) {
+
+			/*
+			 * The client did its part, the wait for an admission is on the server. The idle clock
+			 * is restarted with the in-game limit, which outlasts the admission of a full world.
+			 */
+			restartIdleClock(request.getContext(), NetworkConstants.IDLE_TIMEOUT);
+			REGISTRATIONS.add(request);
+			return;
+		}
+
+		try {
+			executor(stage).execute(() -> perform(request, stage));
+		} catch (RejectedExecutionException exception) {
+			QUEUE_DEPTHS.decrementAndGet(stage.ordinal());
+			reject(request, LoginResponse.LOGIN_SERVER_OFFLINE);
+		}
+	}
+
+	/**
+	 * Performs a stage for a request and hands it to the following one.
+	 *
+	 * @param request The request of interest.
+	 *
+	 * @param stage The stage to perform.
+	 */
+	private static void perform(LoginRequest request, LoginStage stage) {
+		QUEUE_DEPTHS.decrementAndGet(stage.ordinal());
+
+		final long waited = System.nanoTime() - request.getEnqueued();
+		TOTAL_WAIT_NANOS.addAndGet(stage.ordinal(), waited);
+		MAXIMUM_WAIT_NANOS.accumulateAndGet(stage.ordinal(), waited, Math::max);
+
+		/*
+		 * The client gave up while the request was waiting.
+		 */
+		if (request.getContext().isClosed()) {
+			return;
+		}
+
+		LoginResponse response;
+		try {
+			switch (stage) {
+				case DECODE:
+					response = decode(request);
+					break;
+
+				case DECRYPT:
+					response = decrypt(request);
+					break;
+
+				case LOAD:
+					response = load(request);
+					break;
+
+				default:
+					response = register(request);
+					break;
+			}
+		} catch (IOException | RuntimeException exception) {
+			logger.log(Level.WARNING, String.format("Login stage %s failed.", stage), exception);
+			response = LoginResponse.UNEXPECTED_SERVER_RESPONSE;
+		}
+
+		final long elapsed = System.nanoTime() - request.getEnqueued();
+		COMPLETED.incrementAndGet(stage.ordinal());
+		TOTAL_NANOS.addAndGet(stage.ordinal(), elapsed);
+		MAXIMUM_NANOS.accumulateAndGet(stage.ordinal(), elapsed, Math::max);
+
+		if (response != LoginResponse.SUCCESSFUL_LOGIN) {
+			reject(request, response);
+		} else if (stage != LoginStage.REGISTER) {
+			dispatch(request, LoginStage.values()[stage.ordinal() + 1]);
+		}
+	}
+
+	/**
+	 * Reads the login block and validates the client's revision.
+	 *
+	 * @param request The request of interest.
+	 *
+	 * @return The response of this stage.
+	 */
+	private static LoginResponse decode(LoginRequest request) {
+		final ByteBuffer block = ByteBuffer.wrap(request.getBlock());
+
+		if ((block.get() & 0xFF) != ProtocolConstants.MAGIC_NUMBER_OPCODE) {
+			logger.log(Level.WARNING, "Invalid magic number.");
+			return LoginResponse.UNEXPECTED_SERVER_RESPONSE;
+		}
+
+		if (block.getShort() != ProtocolConstants.PROTOCOL_REVISION) {
+			logger.log(Level.WARNING, "Invalid client version.");
+			return LoginResponse.SERVER_UPDATED;
+		}
+
+		block.get();
+
+		for (int accumulator = 0; accumulator < ProtocolConstants.RSA_KEY_SKIPPING_AMOUNT; accumulator ++) {
+			block.getInt();
+		}
+
+		final int length = block.get() & 0xFF;
+
+		if (length > block.remaining()) {
+			logger.log(Level.WARNING, "Invalid secure block size.");
+			return LoginResponse.UNEXPECTED_SERVER_RESPONSE;
+		}
+
+		final byte[] secureBlock = new byte[length];
+		block.get(secureBlock);
+		request.setSecureBlock(secureBlock);
+		return LoginResponse.SUCCESSFUL_LOGIN;
+	}
+
+	/**
+	 * Decrypts the secure part of the login block, creates the session's ciphers and reads the
+	 * credentials.
+	 *
+	 * @param request The request of interest.
+	 *
+	 * @return The response of this stage.
+	 */
+	private static LoginResponse decrypt(LoginRequest request) throws IOException {
+		final PlayerChannel context = request.getContext();
+
+		byte[] secureBlock = request.getSecureBlock();
+
+		if (Configuration.RSA_ENABLED) {
+			secureBlock = new BigInteger(secureBlock).modPow(Configuration.RSA_EXPONENT, Configuration.RSA_MODULUS).toByteArray();
+		}
+
+		final ByteBuffer buffer = ByteBuffer.wrap(secureBlock);
+
+		if (buffer.remaining() < 21 || (buffer.get() & 0xFF) != 10) {
+			logger.log(Level.WARNING, "Invalid RSA key.");
+			return LoginResponse.UNEXPECTED_SERVER_RESPONSE;
+		}
+
+		/*
+		 * The seed generated on the client's end.
+		 */
+		final long clientSeed = buffer.getLong();
+
+		/*
+		 * The seed generated on the server's end.
+		 */
+		final long serverSeed = buffer.getLong();
+
+		/*
+		 * The player's identification key.
+		 */
+		buffer.getInt();
+
+		/*
+		 * The cryptography seeds.
+		 */
+		final int[] seeds = { (int) (clientSeed >> 32), (int) clientSeed, (int) (serverSeed >> 32), (int) serverSeed };
+
+		/*
+		 * The cryptography algorithm for opcode encoding.
+		 */
+		final IsaacRandom encoder = new IsaacRandom(seeds);
+
+		for (int i = 0; i < seeds.length; i++) {
+			seeds[i] += 50;
+		}
+
+		/*
+		 * The cryptography algorithm for opcode decoding.
+		 */
+		final IsaacRandom decoder = new IsaacRandom(seeds);
+
+		context.getPlayer().setCryptographyPair(new IsaacRandomPair(encoder, decoder));
+
+		/*
+		 * The name of the player's account.
+		 */
+		final String username = readString(buffer).trim();
+
+		/*
+		 * The password of the player's account.
+		 */
+		final String password = readString(buffer).trim();
+
+		/*
+		 * The local address of the player's computer.
+		 */
+		final String address = context.getChannel().getRemoteAddress().toString().replaceFirst("/", " ").trim();
+
+		context.getPlayer().getDetails().setUsername(username);
+		context.getPlayer().getDetails().setPassword(password);
+		context.getPlayer().getDetails().setAddress(address);
+		return LoginResponse.SUCCESSFUL_LOGIN;
+	}
+
+	/**
+	 * Loads the player's profile and checks the credentials.
+	 *
+	 * @param request The request of interest.
+	 *
+	 * @return The response of this stage.
+	 */
+	private static LoginResponse load(LoginRequest request) {
+		final Player player = request.getContext().getPlayer();
+
+		/*
+		 * Players are looked up by the base-37 encoding of their name, which must not be shared.
+		 */
+		if (!LongUtils.isEncodable(player.getDetails().getUsername())) {
+			return LoginResponse.INVALID_CREDENTIALS;
+		}
+
+		/*
+		 * A player waiting to reconnect is still in the world, its profile is checked in memory.
+		 */
+		final Player held = World.getPlayer(player.getDetails().getUsername());
+
+		if (held != null && held.getContext().isClosed()) {
+			return held.getDetails().getPassword().equals(player.getDetails().getPassword()) ? LoginResponse.SUCCESSFUL_LOGIN : LoginResponse.INVALID_CREDENTIALS;
+		}
+
+		if (!player.load()) {
+			return LoginResponse.INVALID_CREDENTIALS;
+		}
+
+		if (!Bootstrap.SERVER_STARTED) {
+			return LoginResponse.SERVER_UPDATED;
+		}
+		return LoginResponse.SUCCESSFUL_LOGIN;
+	}
+
+	/**
+	 * Registers the player into the game world and hands the channel over to the game protocol.
+	 * Performed on the game thread.
+	 *
+	 * @param request The request of interest.
+	 *
+	 * @return The response of this stage.
+	 */
+	private static LoginResponse register(LoginRequest request) {
+		final PlayerChannel context = request.getContext();
+		final Player player = context.getPlayer();
+
+		final Player held = World.getPlayer(player.getDetails().getUsername());
+
+		if (held != null) {
+			if (!held.getContext().isClosed()) {
+				return LoginResponse.ACCOUNT_IS_ALREADY_LOGGED_IN;
+			}
+
+			if (!held.getDetails().getPassword().equals(player.getDetails().getPassword())) {
+				return LoginResponse.INVALID_CREDENTIALS;
+			}
+			resume(context, held);
+			return LoginResponse.SUCCESSFUL_LOGIN;
+		}
+
+		if (World.isFull()) {
+			return LoginResponse.WORLD_IS_FULL;
+		}
+
+		context.execute(new WriteChannelEvent(response(context, LoginResponse.SUCCESSFUL_LOGIN)));
+		context.getReactor().execute(() -> context.setProtocolDecoder(new GamePacketDecoder()));
+		restartIdleClock(context, NetworkConstants.IDLE_TIMEOUT);
+
+		player.getEventListener().add(player);
+		return LoginResponse.SUCCESSFUL_LOGIN;
+	}
+
+	/**
+	 * Binds a new channel to a player whose connection dropped, the player keeps its place in the
+	 * world and only takes over the new session's ciphers. Performed on the game thread.
+	 *
+	 * @param context The channel of the reconnected client.
+	 *
+	 * @param held The player waiting to reconnect.
+	 */
+	private static void resume(PlayerChannel context, Player held) {
+		final Player player = context.getPlayer();
+
+		/*
+		 * Discards the packets held back for the lost channel.
+		 */
+		held.flushCoalesced();
+
+		/*
+		 * A logout that was requested before the connection dropped doesn't carry over to the new
+		 * session, a later drop gets its grace period again.
+		 */
+		held.setLogoutRequested(false);
+		held.setCryptographyPair(player.getIsaacRandomPair());
+		held.getDetails().setAddress(player.getDetails().getAddress());
+		held.setContext(context);
+		context.setPlayer(held);
+
+		context.execute(new WriteChannelEvent(response(context, LoginResponse.SUCCESSFUL_LOGIN)));
+		context.getReactor().execute(() -> context.setProtocolDecoder(new GamePacketDecoder()));
+		restartIdleClock(context, NetworkConstants.IDLE_TIMEOUT);
+
+		held.getEventListener().reconnect(held);
+	}
+
+	/**
+	 * Restarts the idle clock of a channel with a new limit, on the channel's reactor. The time
+	 * spent waiting on the server then doesn't count against the client.
+	 *
+	 * @param context The channel of interest.
+	 *
+	 * @param idleLimit The time, in nanoseconds, the channel can stay silent from now on.
+	 */
+	private static void restartIdleClock(PlayerChannel context, long idleLimit) {
+		context.getReactor().execute(() -> {
+			context.setLastRead(System.nanoTime());
+			context.setIdleLimit(idleLimit);
+		});
+	}
+
+	/**
+	 * Writes a failed response to the client and closes its channel, on the channel's reactor.
+	 *
+	 * @param request The request that failed.
+	 *
+	 * @param response The response to write.
+	 */
+	private static void reject(LoginRequest request, LoginResponse response) {
+		final PlayerChannel context = request.getContext();
+
+		logger.log(Level.INFO, String.format("[LOGIN ATTEMPT FAILED] - User: %s  %s", context.getPlayer().getDetails().getUsername(), response.name()));
+
+		if (response == LoginResponse.INVALID_CREDENTIALS) {
+			ConnectionThrottle.tryAcquire(context.getChannel().socket().getInetAddress(), ThrottleType.FAILED_LOGIN);
+		}
+
+		context.getReactor().execute(() -> {
+			context.execute(new WriteChannelEvent(response(context, response)));
+			context.close();
+		});
+	}
+
+	/**
+	 * Creates the response code message for the client.
+	 *
+	 * @param context The channel of the client.
+	 *
+	 * @param response The response code to send.
+	 *
+	 * @return The encoder of this outgoing packet.
+	 */
+	private static PacketWriter response(PlayerChannel context, LoginResponse response) {
+		final PacketWriter writer = new PacketWriter().allocate(3);
+		writer.write(response.getValue());
+		writer.write(context.getPlayer().getDetails().getRights().getProtocolValue()); // player rights
+		writer.write(0);
+		return writer;
+	}
+
+	/**
+	 * Reads a series of bytes in the form of characters and translates that
+	 * sequence into a String.
+	 *
+	 * @param buffer The internal buffer.
+	 *
+	 * @return The result of the operation.
+	 */
+	private static String readString(ByteBuffer buffer) {
+		final StringBuilder builder = new StringBuilder();
+
+		for (char character = '\0'; buffer.hasRemaining() && character != '\n'; character = (char) (buffer.get() & 0xFF)) {
+			/*
+			 * Appends the String representation of the character argument to this sequence.
+			 */
+			builder.append(character);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Returns the executor of a stage performed by workers.
+	 *
+	 * @param stage The stage of interest.
+	 *
+	 * @return The returned executor.
+	 */
+	private static ThreadPoolExecutor executor(LoginStage stage) {
+		switch (stage) {
+			case DECODE:
+				return DECODERS;
+
+			case DECRYPT:
+				return DECRYPTORS;
+
+			default:
+				return LOADERS;
+		}
+	}
+
+	/**
+	 * Returns the amount of requests waiting for a stage.
+	 *
+	 * @param stage The stage of interest.
+	 *
+	 * @return The returned amount.
+	 */
+	public static int getQueueDepth(LoginStage stage) {
+		return QUEUE_DEPTHS.get(stage.ordinal());
+	}
+
+	/**
+	 * Returns the amount of requests that went through a stage.
+	 *
+	 * @param stage The stage of interest.
+	 *
+	 * @return The returned amount.
+	 */
+	public static long getCompleted(LoginStage stage) {
+		return COMPLETED.get(stage.ordinal());
+	}
+
+	/**
+	 * Returns the cumulative time, in nanoseconds, requests spent waiting in the queue of a stage.
+	 *
+	 * @param stage The stage of interest.
+	 *
+	 * @return The returned time.
+	 */
+	public static long getTotalWaitNanos(LoginStage stage) {
+		return TOTAL_WAIT_NANOS.get(stage.ordinal());
+	}
+
+	/**
+	 * Returns the longest time, in nanoseconds, a request spent waiting in the queue of a stage.
+	 *
+	 * @param stage The stage of interest.
+	 *
+	 * @return The returned time.
+	 */
+	public static long getMaximumWaitNanos(LoginStage stage) {
+		return MAXIMUM_WAIT_NANOS.get(stage.ordinal());
+	}
+
+	/**
+	 * Returns the cumulative time, in nanoseconds, requests spent waiting for and in a stage.
+	 *
+	 * @param stage The stage of interest.
+	 *
+	 * @return The returned time.
+	 */
+	public static long getTotalNanos(LoginStage stage) {
+		return TOTAL_NANOS.get(stage.ordinal());
+	}
+
+	/**
+	 * Returns the longest time, in nanoseconds, a request spent waiting for and in a stage.
+	 *
+	 * @param stage The stage of interest.
+	 *
+	 * @return The returned time.
+	 */
+	public static long getMaximumNanos(LoginStage stage) {
+		return MAXIMUM_NANOS.get(stage.ordinal());
+	}
+}
@@ -0,0 +1,95 @@
+package main.astraeus.net.protocol.codec.login;
+
+import main.astraeus.net.channel.PlayerChannel;
+
+/**
+ * A login request making its way through the {@link LoginPipeline}.
+ */
+public final class LoginRequest {
+
+	/**
+	 * The channel the request was received on.
+	 */
+	private final PlayerChannel context;
+
+	/**
+	 * The login block, as received from the client.
+	 */
+	private final byte[] block;
+
+	/**
+	 * The secure part of the login block, read by the {@code DECODE} stage.
+	 */
+	private byte[] secureBlock;
+
+	/**
+	 * The time, in nanoseconds, at which the request entered the queue of its current stage.
+	 */
+	private long enqueued;
+
+	/**
+	 * The overloaded class constructor used for instantiation of this class file.
+	 *
+	 * @param context The channel the request was received on.
+	 *
+	 * @param block The login block, as received from the client.
+	 */
+	public LoginRequest(PlayerChannel context, byte[] block) {
+		this.context = context;
+		this.block = block;
+	}
+
+	/**
+	 * Returns an instance of the channel the request was received on.
+	 *
+	 * @return The returned instance.
+	 */
+	public PlayerChannel getContext() {
+		return context;
+	}
+
+	/**
+	 * Returns the login block, as received from the client.
+	 *
+	 * @return The returned block.
+	 */
+	public byte[] getBlock() {
+		return block;
+	}
+
+	/**
+	 * Returns the secure part of the login block.
+	 *
+	 * @return The returned block.
+	 */
+	public byte[] getSecureBlock() {
+		return secureBlock;
+	}
+
+	/**
+	 * Modifies the secure part of the login block.
+	 *
+	 * @param secureBlock The new modification.
+	 */
+	public void setSecureBlock(byte[] secureBlock) {
+		this.secureBlock = secureBlock;
+	}
+
+	/**
+	 * Returns the time at which the request entered the queue of its current stage.
+	 *
+	 * @return The returned time, in nanoseconds.
+	 */
+	public long getEnqueued() {
+		return enqueued;
+	}
+
+	/**
+	 * Modifies the time at which the request entered the queue of its current stage.
+	 *
+	 * @param enqueued The new modification.
+	 */
+	public void setEnqueued(long enqueued) {
+		this.enqueued = enqueued;
+	}
+}
@@ -1,12 +1,18 @@
 package main.astraeus.net.protocol.codec.login;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import main.astraeus.game.model.entity.mobile.player.Player;
 import main.astraeus.net.channel.PlayerChannel;
+import main.astraeus.net.ondemand.OnDemandService;
 import main.astraeus.net.protocol.ProtocolConstants;
 import main.astraeus.net.protocol.ProtocolStateDecoder;
+import main.astraeus.net.throttle.ConnectionThrottle;
+import main.astraeus.net.throttle.ThrottleType;
 
 public final class LoginRequestDecoder implements ProtocolStateDecoder {
 	
@@ -17,25 +23,59 @@ public final class LoginRequestDecoder implements ProtocolStateDecoder {
 
 	@Override
 	public void decode(PlayerChannel context) throws IOException {
+		if (!context.getBuffer().hasRemaining()) {
+			return;
+		}
+
 		/*
 		 * Denotes the appropriate server.
 		 */
-		final int opcode = context.getBuffer().get() & 0xFF;
+		final int opcode = context.getBuffer().get(context.getBuffer().position()) & 0xFF;
 
 		if (opcode == ProtocolConstants.GAME_SEVER_OPCODE) {
+			if (context.getBuffer().remaining() < 2) {
+				return;
+			}
+			context.getBuffer().get();
+
 			/*
 			 * A hash of the player's account name, theorized to determine a login
 			 * server.
 			 */
 			final int hash = context.getBuffer().get() & 0xFF;
 
+			/*
+			 * Every handshake costs a secure random seed, hosts that start them too fast are dropped.
+			 */
+			if (!ConnectionThrottle.tryAcquire(context.getChannel().socket().getInetAddress(), ThrottleType.HANDSHAKE)) {
+				context.close();
+				return;
+			}
+
+			/*
+			 * The player is only created for handshakes that were let through.
+			 */
+			context.setPlayer(new Player(context));
 			context.setProtocolDecoder(new LoginHeaderDecoder());
 			Logger.getLogger(LoginRequestDecoder.class.getSimpleName()).info("New Connection : " + context.getChannel() + ". Hash : " + hash + ".");
 
 		} else if (opcode == ProtocolConstants.FILE_SERVER_OPCODE) {
-			logger.log(Level.INFO, "File-Server indication opcode encountered.");
+			context.getBuffer().get();
+
+			/*
+			 * The file server runs on a thread of its own, the socket is handed over to it.
+			 */
+			final SocketChannel channel = context.getChannel();
+			final ByteBuffer pending = context.detach();
+
+			if (pending != null && !OnDemandService.transfer(channel, pending)) {
+				logger.log(Level.FINE, "File server request refused, no cache is being served.");
+				channel.close();
+			}
 		} else {
+			context.getBuffer().get();
 			logger.log(Level.SEVERE, "Invalid server request opcode: {0}", opcode);
+			context.close();
 		}
 	}
 
@@ -35,7 +35,12 @@ public enum LoginResponse {
 	/*
 	 * Denotes that the maximum amount of players has been reached.
 	 */
-	WORLD_IS_FULL(7);
+	WORLD_IS_FULL(7),
+
+	/*
+	 * Denotes that the login server is unable to take the request.
+	 */
+	LOGIN_SERVER_OFFLINE(8);
 
 	/**
 	 * The value the response holds.
@@ -0,0 +1,27 @@
+package main.astraeus.net.protocol.codec.login;
+
+/**
+ * The stages a login request passes through in the {@link LoginPipeline}, in order.
+ */
+public enum LoginStage {
+
+	/**
+	 * Reads the login block and validates the client's revision.
+	 */
+	DECODE,
+
+	/**
+	 * Decrypts the secure part of the login block and creates the session's ciphers.
+	 */
+	DECRYPT,
+
+	/**
+	 * Loads the player's profile and checks the credentials.
+	 */
+	LOAD,
+
+	/**
+	 * Registers the player into the game world, on the game thread.
+	 */
+	REGISTER;
+}
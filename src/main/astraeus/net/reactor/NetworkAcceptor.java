@@ -0,0 +1,125 @@
+package main.astraeus.net.reactor;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import main.astraeus.net.channel.PlayerChannel;
+import main.astraeus.net.channel.events.AcceptChannelEvent;
+import main.astraeus.net.throttle.ConnectionThrottle;
+import main.astraeus.net.throttle.ThrottleType;
+
+/**
+ * The boss thread of the network. It blocks on the listening channel and hands every accepted
+ * connection to a worker {@link NetworkReactor} of a {@link NetworkReactorGroup}, which handles the
+ * connection from then on.
+ */
+public final class NetworkAcceptor implements Runnable {
+
+      /**
+       * The single logger for this class.
+       */
+      private static final Logger logger = Logger.getLogger(NetworkAcceptor.class.getName());
+
+      /**
+       * A channel for stream-oriented listening sockets.
+       */
+      private final ServerSocketChannel channel;
+
+      /**
+       * The worker reactors accepted connections are handed to.
+       */
+      private final NetworkReactorGroup workers;
+
+      /**
+       * The thread that is blocking on the listening channel.
+       */
+      private Thread thread;
+
+      /**
+       * Creates a new {@link NetworkAcceptor}.
+       * 
+       * @param channel A blocking channel for stream-oriented listening sockets.
+       * 
+       * @param workers The worker reactors accepted connections are handed to.
+       */
+      public NetworkAcceptor(ServerSocketChannel channel, NetworkReactorGroup workers) {
+            this.channel = channel;
+            this.workers = workers;
+      }
+
+      /**
+       * Starts the worker reactors and the acceptor thread.
+       */
+      public void start() {
+            workers.start();
+            thread = new Thread(this, "NetworkAcceptor");
+            thread.start();
+      }
+
+      /**
+       * Stops accepting connections and shuts the worker reactors down.
+       */
+      public void shutdown() {
+            try {
+                  channel.close();
+                  thread.join();
+            } catch (IOException exception) {
+                  logger.log(Level.WARNING, "Could not close the listening channel.", exception);
+            } catch (InterruptedException exception) {
+                  Thread.currentThread().interrupt();
+            }
+            workers.shutdown();
+      }
+
+      @Override
+      public void run() {
+            while (channel.isOpen()) {
+                  final SocketChannel accepted;
+
+                  try {
+                        accepted = channel.accept();
+                  } catch (ClosedChannelException exception) {
+                        break;
+                  } catch (IOException exception) {
+                        logger.log(Level.WARNING, "Could not accept a connection.", exception);
+                        continue;
+                  }
+
+                  /*
+                   * Turns away hosts that connect too fast or keep failing to log in, before a
+                   * reactor, a channel or a buffer is spent on them.
+                   */
+                  final InetAddress address = accepted.socket().getInetAddress();
+                  if (ConnectionThrottle.isLimited(address, ThrottleType.FAILED_LOGIN)
+                              || !ConnectionThrottle.tryAcquire(address, ThrottleType.ACCEPT)) {
+                        try {
+                              accepted.close();
+                        } catch (IOException exception) {
+                              logger.log(Level.FINE, "Could not close a throttled connection.", exception);
+                        }
+                        continue;
+                  }
+
+                  final NetworkReactor reactor = workers.next();
+
+                  reactor.execute(() -> {
+                        final PlayerChannel context = new PlayerChannel(accepted);
+                        context.execute(new AcceptChannelEvent(reactor));
+
+                        /*
+                         * The registration failed, closing the channel through its reactor frees the
+                         * reactor's slot and returns the channel's buffer to the pool.
+                         */
+                        if (context.getSelectedKey() == null) {
+                              context.setReactor(reactor);
+                              context.close();
+                        }
+                  });
+            }
+      }
+}
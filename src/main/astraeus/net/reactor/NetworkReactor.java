@@ -0,0 +1,325 @@
+package main.astraeus.net.reactor;
+
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import main.astraeus.net.channel.PlayerChannel;
+import main.astraeus.net.channel.events.ReadChannelEvent;
+
+/**
+ * An event-driven reactor that owns a single {@link Selector} and the thread that blocks on it.
+ * Every {@link PlayerChannel} is pinned to one reactor for its whole life, network events are
+ * handled as soon as the selector reports them and other threads hand work to the reactor through
+ * {@link #execute(Runnable)} which wakes the selector up.
+ */
+public final class NetworkReactor implements Runnable, Reactor {
+
+      /**
+       * The single logger for this class.
+       */
+      private static final Logger logger = Logger.getLogger(NetworkReactor.class.getName());
+
+      /**
+       * A multiplexor for the validation and identification of key based network events.
+       */
+      private final Selector selector;
+
+      /**
+       * The tasks submitted by other threads that must be executed on the reactor thread.
+       */
+      private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+      /**
+       * The flag that denotes a wake up has already been requested for the current select.
+       */
+      private final AtomicBoolean wakeupRequested = new AtomicBoolean();
+
+      /**
+       * The amount of connections that have been handed to this reactor and not yet closed.
+       */
+      private final AtomicInteger connections = new AtomicInteger();
+
+      /**
+       * The idle timeouts of the channels handled by this reactor.
+       */
+      private final TimingWheel timers = new TimingWheel();
+
+      /**
+       * The name of the reactor thread.
+       */
+      private final String name;
+
+      /**
+       * The thread that is blocking on the selector.
+       */
+      private Thread thread;
+
+      /**
+       * The flag that denotes this reactor is running.
+       */
+      private volatile boolean running;
+
+      /**
+       * Creates a new {@link NetworkReactor}.
+       * 
+       * @param name The name of the reactor thread.
+       * 
+       * @throws IOException The exception thrown if the selector could not be opened.
+       */
+      public NetworkReactor(String name) throws IOException {
+            this.name = name;
+            this.selector = Selector.open();
+      }
+
+      /**
+       * Starts the reactor thread.
+       */
+      public void start() {
+            running = true;
+            thread = new Thread(this, name);
+            thread.start();
+      }
+
+      /**
+       * Executes a task on the reactor thread. If the caller already is the reactor thread the
+       * task is executed immediately.
+       * 
+       * @param task The task to execute.
+       */
+      @Override
+      public void execute(Runnable task) {
+            if (inReactor()) {
+                  task.run();
+                  return;
+            }
+            tasks.add(task);
+            wakeup();
+      }
+
+      /**
+       * Wakes the reactor thread up from a blocking select. Only the first call between two
+       * selects reaches the selector.
+       */
+      public void wakeup() {
+            if (wakeupRequested.compareAndSet(false, true)) {
+                  selector.wakeup();
+            }
+      }
+
+      /**
+       * Determines if the current thread is the reactor thread.
+       * 
+       * @return {@code true} if it is, {@code false} otherwise.
+       */
+      @Override
+      public boolean inReactor() {
+            return Thread.currentThread() == thread;
+      }
+
+      /**
+       * Reserves a connection on this reactor, this is done by the acceptor before the channel is
+       * handed over so that a burst of connections is spread across every reactor.
+       */
+      public void reserve() {
+            connections.incrementAndGet();
+      }
+
+      /**
+       * Releases a connection that was reserved on this reactor.
+       */
+      @Override
+      public void release() {
+            connections.decrementAndGet();
+      }
+
+      /**
+       * Returns the amount of connections handled by this reactor.
+       * 
+       * @return The returned amount.
+       */
+      public int getConnectionCount() {
+            return connections.get();
+      }
+
+      /**
+       * Starts timing out a channel once it has been silent for longer than its idle limit. This
+       * must only be called by the reactor thread.
+       * 
+       * @param context The channel of interest.
+       */
+      public void watch(PlayerChannel context) {
+            final long now = System.nanoTime();
+            context.setLastRead(now);
+            context.setIdleTimeout(timers.schedule(now + context.getIdleLimit(), () -> checkIdle(context)));
+      }
+
+      /**
+       * Stops timing out a channel. This must only be called by the reactor thread.
+       * 
+       * @param context The channel of interest.
+       */
+      @Override
+      public void unwatch(PlayerChannel context) {
+            if (context.getIdleTimeout() != null) {
+                  timers.cancel(context.getIdleTimeout());
+            }
+      }
+
+      /**
+       * Closes a channel whose idle timeout expired, unless it was read from in the meantime. Reads
+       * don't touch the wheel, the timeout is simply moved to the new deadline here.
+       * 
+       * @param context The channel of interest.
+       */
+      private void checkIdle(PlayerChannel context) {
+            if (context.isClosed()) {
+                  return;
+            }
+
+            final long deadline = context.getLastRead() + context.getIdleLimit();
+
+            if (deadline - System.nanoTime() > 0) {
+                  timers.reschedule(context.getIdleTimeout(), deadline);
+                  return;
+            }
+            logger.info(String.format("[%s] - Connection has timed out.", context.getChannel().socket().getRemoteSocketAddress()));
+            context.close();
+      }
+
+      /**
+       * Stops the reactor, closes every channel that is registered with it and waits for the
+       * reactor thread to finish.
+       */
+      public void shutdown() {
+            if (!running) {
+                  return;
+            }
+            running = false;
+            selector.wakeup();
+
+            if (!inReactor()) {
+                  try {
+                        thread.join();
+                  } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                  }
+            }
+      }
+
+      @Override
+      public void run() {
+            try {
+                  while (running) {
+                        /*
+                         * Blocks no longer than the next tick of the timing wheel, a reactor with
+                         * nothing to time out blocks until an event arrives.
+                         */
+                        selector.select(timers.untilNextTick(System.nanoTime()));
+                        wakeupRequested.set(false);
+
+                        runTasks();
+
+                        final Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+
+                        while (iterator.hasNext()) {
+                              final SelectionKey selection = iterator.next();
+
+                              /*
+                               * The selector never removes keys from the selected set itself, a
+                               * key left behind would be reported again on the next select.
+                               */
+                              iterator.remove();
+
+                              handle(selection);
+                        }
+
+                        timers.expire(System.nanoTime());
+                  }
+            } catch (IOException | ClosedSelectorException exception) {
+                  logger.log(Level.SEVERE, "The network reactor has failed.", exception);
+            } finally {
+                  close();
+            }
+      }
+
+      /**
+       * Handles a single selected key.
+       * 
+       * @param selection The key that was selected.
+       */
+      private void handle(SelectionKey selection) {
+            if (!selection.isValid()) {
+                  return;
+            }
+
+            final PlayerChannel attachment = (PlayerChannel) selection.attachment();
+
+            if (attachment == null || !attachment.getChannel().isOpen()) {
+                  return;
+            }
+
+            if (selection.isReadable()) {
+                  attachment.execute(new ReadChannelEvent());
+            }
+
+            if (selection.isValid() && selection.isWritable()) {
+                  attachment.flush();
+            }
+      }
+
+      /**
+       * Executes every task that was submitted since the last select.
+       */
+      private void runTasks() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                  try {
+                        task.run();
+                  } catch (RuntimeException exception) {
+                        logger.log(Level.WARNING, "A network task has failed.", exception);
+                  }
+            }
+      }
+
+      /**
+       * Closes every registered connection and the selector itself.
+       */
+      private void close() {
+            runTasks();
+
+            for (SelectionKey key : selector.keys()) {
+                  if (key.attachment() instanceof PlayerChannel) {
+                        try {
+                              ((PlayerChannel) key.attachment()).close();
+                        } catch (RuntimeException exception) {
+                              logger.log(Level.WARNING, "Could not close a connection.", exception);
+                        }
+                  }
+            }
+
+            try {
+                  selector.close();
+            } catch (IOException exception) {
+                  logger.log(Level.WARNING, "Could not close the network reactor.", exception);
+            }
+            logger.info(String.format("%s has shut down.", name));
+      }
+
+      /**
+       * Returns the multiplexor this reactor is blocking on.
+       * 
+       * @return The returned instance.
+       */
+      public Selector getSelector() {
+            return selector;
+      }
+}
@@ -0,0 +1,90 @@
+package main.astraeus.net.reactor;
+
+import java.io.IOException;
+
+/**
+ * A fixed group of worker {@link NetworkReactor}s that new connections are spread across.
+ */
+public final class NetworkReactorGroup {
+
+      /**
+       * The worker reactors of this group.
+       */
+      private final NetworkReactor[] reactors;
+
+      /**
+       * The index of the reactor that was last chosen, used to break ties between reactors that
+       * handle the same amount of connections.
+       */
+      private int index;
+
+      /**
+       * Creates a new {@link NetworkReactorGroup}.
+       * 
+       * @param size The amount of worker reactors.
+       * 
+       * @throws IOException The exception thrown if a selector could not be opened.
+       */
+      public NetworkReactorGroup(int size) throws IOException {
+            if (size < 1) {
+                  throw new IllegalArgumentException("A reactor group needs at least one reactor.");
+            }
+            reactors = new NetworkReactor[size];
+            for (int i = 0; i < size; i++) {
+                  reactors[i] = new NetworkReactor("NetworkWorker-" + i);
+            }
+      }
+
+      /**
+       * Starts every reactor of this group.
+       */
+      public void start() {
+            for (NetworkReactor reactor : reactors) {
+                  reactor.start();
+            }
+      }
+
+      /**
+       * Stops every reactor of this group.
+       */
+      public void shutdown() {
+            for (NetworkReactor reactor : reactors) {
+                  reactor.shutdown();
+            }
+      }
+
+      /**
+       * Chooses the least loaded reactor for a new connection and reserves the connection on it.
+       * Reactors with an equal load are chosen in a round-robin fashion. This is only called by
+       * the acceptor thread.
+       * 
+       * @return The chosen reactor.
+       */
+      public NetworkReactor next() {
+            NetworkReactor chosen = null;
+            int lowest = Integer.MAX_VALUE;
+
+            for (int i = 1; i <= reactors.length; i++) {
+                  final int candidate = (index + i) % reactors.length;
+                  final int load = reactors[candidate].getConnectionCount();
+
+                  if (load < lowest) {
+                        lowest = load;
+                        chosen = reactors[candidate];
+                        index = candidate;
+                  }
+            }
+
+            chosen.reserve();
+            return chosen;
+      }
+
+      /**
+       * Returns the worker reactors of this group.
+       * 
+       * @return The returned reactors.
+       */
+      public NetworkReactor[] getReactors() {
+            return reactors;
+      }
+}
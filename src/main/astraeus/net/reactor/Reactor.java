@@ -0,0 +1,37 @@
+package main.astraeus.net.reactor;
+
+import main.astraeus.net.channel.PlayerChannel;
+
+/**
+ * The executor a {@link PlayerChannel} is pinned to. Everything that touches the channel's
+ * buffers or decoders happens through it, one task at a time.
+ */
+public interface Reactor {
+
+      /**
+       * Executes a task for the channels of this reactor. If the caller already is the reactor the
+       * task is executed immediately.
+       * 
+       * @param task The task to execute.
+       */
+      void execute(Runnable task);
+
+      /**
+       * Determines if the current thread is acting as this reactor.
+       * 
+       * @return {@code true} if it is, {@code false} otherwise.
+       */
+      boolean inReactor();
+
+      /**
+       * Releases a connection that was handed to this reactor.
+       */
+      void release();
+
+      /**
+       * Stops timing out a channel. This must only be called from within the reactor.
+       * 
+       * @param context The channel of interest.
+       */
+      void unwatch(PlayerChannel context);
+}
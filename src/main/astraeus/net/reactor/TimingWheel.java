@@ -0,0 +1,244 @@
+package main.astraeus.net.reactor;
+
+import main.astraeus.net.NetworkConstants;
+
+/**
+ * A hashed timing wheel of timeouts. Time is split into ticks of a fixed duration and each
+ * timeout is linked into the slot of the tick it expires on, so scheduling, cancelling and
+ * expiring a timeout are constant time no matter how many are pending. Timeouts further away
+ * than a whole revolution stay in their slot until the wheel comes around to their tick.
+ * <p>
+ * A wheel is owned by a single {@link NetworkReactor} and must only be used by its thread.
+ */
+public final class TimingWheel {
+
+      /**
+       * The slots of the wheel, each the head of a list of timeouts, its length is a power of two.
+       */
+      private final Timeout[] slots;
+
+      /**
+       * The mask used to turn a tick into a slot.
+       */
+      private final int mask;
+
+      /**
+       * The duration of a single tick, in nanoseconds.
+       */
+      private final long tickDuration;
+
+      /**
+       * The time, in nanoseconds, the wheel started turning.
+       */
+      private final long start;
+
+      /**
+       * The next tick to expire.
+       */
+      private long tick;
+
+      /**
+       * The amount of pending timeouts.
+       */
+      private int size;
+
+      /**
+       * Creates a new {@link TimingWheel} using the network constants.
+       */
+      public TimingWheel() {
+            this(NetworkConstants.TIMING_WHEEL_SLOTS, NetworkConstants.TIMING_WHEEL_TICK);
+      }
+
+      /**
+       * Creates a new {@link TimingWheel}.
+       * 
+       * @param slots The amount of slots, rounded up to a power of two.
+       * 
+       * @param tickDuration The duration of a single tick, in nanoseconds.
+       */
+      public TimingWheel(int slots, long tickDuration) {
+            final int length = Integer.highestOneBit(Math.max(slots, 2) - 1) << 1;
+            this.slots = new Timeout[length];
+            this.mask = length - 1;
+            this.tickDuration = tickDuration;
+            this.start = System.nanoTime();
+      }
+
+      /**
+       * Schedules a task to be run once a deadline has passed.
+       * 
+       * @param deadline The time, in nanoseconds, after which the task is run.
+       * 
+       * @param task The task to run.
+       * 
+       * @return The pending timeout, which can be cancelled.
+       */
+      public Timeout schedule(long deadline, Runnable task) {
+            final Timeout timeout = new Timeout(task);
+            link(timeout, deadline);
+            return timeout;
+      }
+
+      /**
+       * Moves a pending or expired timeout to a new deadline.
+       * 
+       * @param timeout The timeout to move.
+       * 
+       * @param deadline The new time, in nanoseconds, after which its task is run.
+       */
+      public void reschedule(Timeout timeout, long deadline) {
+            cancel(timeout);
+            link(timeout, deadline);
+      }
+
+      /**
+       * Cancels a timeout, nothing happens if it isn't pending.
+       * 
+       * @param timeout The timeout to cancel.
+       */
+      public void cancel(Timeout timeout) {
+            if (timeout.slot == -1) {
+                  return;
+            }
+            if (timeout.previous != null) {
+                  timeout.previous.next = timeout.next;
+            } else {
+                  slots[timeout.slot] = timeout.next;
+            }
+            if (timeout.next != null) {
+                  timeout.next.previous = timeout.previous;
+            }
+            timeout.previous = timeout.next = null;
+            timeout.slot = -1;
+            size--;
+      }
+
+      /**
+       * Runs the tasks of every timeout whose tick has passed.
+       * 
+       * @param now The current time, in nanoseconds.
+       */
+      public void expire(long now) {
+            final long current = (now - start) / tickDuration;
+
+            /*
+             * Nothing is pending, there are no slots worth visiting on the way.
+             */
+            if (size == 0) {
+                  tick = current + 1;
+                  return;
+            }
+
+            for (; tick <= current && size > 0; tick++) {
+                  Timeout timeout = slots[(int) tick & mask];
+                  while (timeout != null) {
+                        final Timeout next = timeout.next;
+
+                        /*
+                         * Timeouts of a later revolution share the slot, they are left alone.
+                         */
+                        if (timeout.tick <= tick) {
+                              cancel(timeout);
+                              timeout.task.run();
+                        }
+                        timeout = next;
+                  }
+            }
+            tick = Math.max(tick, current + 1);
+      }
+
+      /**
+       * Returns the time until the next tick is due, the longest a reactor can block before this
+       * wheel needs to be turned.
+       * 
+       * @param now The current time, in nanoseconds.
+       * 
+       * @return The time in milliseconds, at least one, or zero if nothing is pending.
+       */
+      public long untilNextTick(long now) {
+            if (size == 0) {
+                  return 0;
+            }
+            final long remaining = start + tick * tickDuration - now;
+            return Math.max(1, (remaining + 999_999) / 1_000_000);
+      }
+
+      /**
+       * Returns the amount of pending timeouts.
+       * 
+       * @return The returned amount.
+       */
+      public int size() {
+            return size;
+      }
+
+      /**
+       * Links a timeout into the slot of the tick its deadline falls on.
+       * 
+       * @param timeout The timeout to link.
+       * 
+       * @param deadline The time, in nanoseconds, after which its task is run.
+       */
+      private void link(Timeout timeout, long deadline) {
+            final long expires = Math.max(tick, (deadline - start + tickDuration - 1) / tickDuration);
+            final int slot = (int) expires & mask;
+
+            timeout.tick = expires;
+            timeout.slot = slot;
+            timeout.next = slots[slot];
+            if (timeout.next != null) {
+                  timeout.next.previous = timeout;
+            }
+            slots[slot] = timeout;
+            size++;
+      }
+
+      /**
+       * A task waiting in a {@link TimingWheel}.
+       */
+      public static final class Timeout {
+
+            /**
+             * The task run once the timeout expires.
+             */
+            private final Runnable task;
+
+            /**
+             * The tick the timeout expires on.
+             */
+            private long tick;
+
+            /**
+             * The slot the timeout is linked into, or {@code -1} if it isn't pending.
+             */
+            private int slot = -1;
+
+            /**
+             * The previous timeout of the same slot.
+             */
+            private Timeout previous;
+
+            /**
+             * The next timeout of the same slot.
+             */
+            private Timeout next;
+
+            /**
+             * Creates a new {@link Timeout}.
+             * 
+             * @param task The task run once the timeout expires.
+             */
+            private Timeout(Runnable task) {
+                  this.task = task;
+            }
+
+            /**
+             * Determines if this timeout is waiting to expire.
+             * 
+             * @return {@code true} if it is pending.
+             */
+            public boolean isPending() {
+                  return slot != -1;
+            }
+      }
+}
@@ -0,0 +1,171 @@
+package main.astraeus.net.throttle;
+
+import java.net.InetAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import main.astraeus.net.NetworkConstants;
+
+/**
+ * Limits the rate of connections, handshakes and failed logins per remote address, so a single
+ * host can't make the server allocate channels, secure random seeds or profile loads faster
+ * than it can afford. Addresses that stay quiet long enough for their buckets to refill are
+ * forgotten, which keeps the table as small as the amount of recently active hosts.
+ */
+public final class ConnectionThrottle {
+
+      /**
+       * The throttling records, by remote address.
+       */
+      private static final Map<InetAddress, Record> RECORDS = new ConcurrentHashMap<>();
+
+      /**
+       * The time, in nanoseconds, the table was last swept of expired records.
+       */
+      private static final AtomicLong SWEPT = new AtomicLong(System.nanoTime());
+
+      /**
+       * Takes a token from the bucket of an address.
+       * 
+       * @param address The remote address of interest.
+       * 
+       * @param type The kind of event that happened.
+       * 
+       * @return {@code true} if the event is allowed, {@code false} if the address is limited.
+       */
+      public static boolean tryAcquire(InetAddress address, ThrottleType type) {
+            if (isExempt(address)) {
+                  return true;
+            }
+            final long now = System.nanoTime();
+            sweep(now);
+            return RECORDS.computeIfAbsent(address, key -> new Record(now)).take(type, now);
+      }
+
+      /**
+       * Determines if an address has run out of tokens of a type, without taking one.
+       * 
+       * @param address The remote address of interest.
+       * 
+       * @param type The kind of event of interest.
+       * 
+       * @return {@code true} if the address is limited.
+       */
+      public static boolean isLimited(InetAddress address, ThrottleType type) {
+            if (isExempt(address)) {
+                  return false;
+            }
+            final Record record = RECORDS.get(address);
+            return record != null && record.isEmpty(type, System.nanoTime());
+      }
+
+      /**
+       * Returns the amount of addresses currently remembered.
+       * 
+       * @return The amount of addresses.
+       */
+      public static int size() {
+            return RECORDS.size();
+      }
+
+      /**
+       * Determines if an address is never limited. Loopback connections come from the machine
+       * itself, such as a local client or a proxy in front of the server.
+       * 
+       * @param address The remote address of interest.
+       * 
+       * @return {@code true} if the address is exempt.
+       */
+      private static boolean isExempt(InetAddress address) {
+            return address == null || address.isLoopbackAddress();
+      }
+
+      /**
+       * Removes the records of addresses that have been quiet for a while and whose buckets are
+       * all full again, at most once per expiry period.
+       * 
+       * @param now The current time, in nanoseconds.
+       */
+      private static void sweep(long now) {
+            final long last = SWEPT.get();
+            if (now - last < NetworkConstants.THROTTLE_EXPIRY || !SWEPT.compareAndSet(last, now)) {
+                  return;
+            }
+            RECORDS.values().removeIf(record -> record.isExpired(now));
+      }
+
+      /**
+       * The buckets of a single remote address.
+       */
+      private static final class Record {
+
+            /**
+             * The buckets, indexed by {@link ThrottleType} ordinal.
+             */
+            private final TokenBucket[] buckets = new TokenBucket[ThrottleType.values().length];
+
+            /**
+             * The time, in nanoseconds, of the last event of this address.
+             */
+            private long lastSeen;
+
+            /**
+             * Creates a new {@link Record}.
+             * 
+             * @param now The current time, in nanoseconds.
+             */
+            Record(long now) {
+                  for (ThrottleType type : ThrottleType.values()) {
+                        buckets[type.ordinal()] = new TokenBucket(type, now);
+                  }
+                  this.lastSeen = now;
+            }
+
+            /**
+             * Takes a token from a bucket.
+             * 
+             * @param type The kind of event that happened.
+             * 
+             * @param now The current time, in nanoseconds.
+             * 
+             * @return {@code true} if a token was taken.
+             */
+            synchronized boolean take(ThrottleType type, long now) {
+                  lastSeen = now;
+                  return buckets[type.ordinal()].take(now);
+            }
+
+            /**
+             * Determines if a bucket is empty.
+             * 
+             * @param type The kind of event of interest.
+             * 
+             * @param now The current time, in nanoseconds.
+             * 
+             * @return {@code true} if the bucket is empty.
+             */
+            synchronized boolean isEmpty(ThrottleType type, long now) {
+                  return buckets[type.ordinal()].isEmpty(now);
+            }
+
+            /**
+             * Determines if this record can be forgotten.
+             * 
+             * @param now The current time, in nanoseconds.
+             * 
+             * @return {@code true} if the address has been quiet and every bucket is full.
+             */
+            synchronized boolean isExpired(long now) {
+                  if (now - lastSeen < NetworkConstants.THROTTLE_EXPIRY) {
+                        return false;
+                  }
+                  for (TokenBucket bucket : buckets) {
+                        if (!bucket.isFull(now)) {
+                              return false;
+                        }
+                  }
+                  return true;
+            }
+      }
+}
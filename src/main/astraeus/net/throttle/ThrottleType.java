@@ -0,0 +1,64 @@
+package main.astraeus.net.throttle;
+
+import main.astraeus.net.NetworkConstants;
+
+/**
+ * The kinds of events that are rate limited per remote address.
+ */
+public enum ThrottleType {
+
+      /**
+       * An accepted connection.
+       */
+      ACCEPT(NetworkConstants.ACCEPTS_PER_SECOND, NetworkConstants.ACCEPT_BURST),
+
+      /**
+       * A login handshake, each one costs the server a secure random seed.
+       */
+      HANDSHAKE(NetworkConstants.HANDSHAKES_PER_SECOND, NetworkConstants.HANDSHAKE_BURST),
+
+      /**
+       * A login attempt with invalid credentials.
+       */
+      FAILED_LOGIN(NetworkConstants.FAILED_LOGINS_PER_SECOND, NetworkConstants.FAILED_LOGIN_BURST);
+
+      /**
+       * The amount of tokens regained per second.
+       */
+      private final double rate;
+
+      /**
+       * The maximum amount of tokens a bucket can hold.
+       */
+      private final int burst;
+
+      /**
+       * Creates a new {@link ThrottleType}.
+       * 
+       * @param rate The amount of tokens regained per second.
+       * 
+       * @param burst The maximum amount of tokens a bucket can hold.
+       */
+      private ThrottleType(double rate, int burst) {
+            this.rate = rate;
+            this.burst = burst;
+      }
+
+      /**
+       * Returns the amount of tokens regained per second.
+       * 
+       * @return The returned rate.
+       */
+      public double getRate() {
+            return rate;
+      }
+
+      /**
+       * Returns the maximum amount of tokens a bucket can hold.
+       * 
+       * @return The returned amount.
+       */
+      public int getBurst() {
+            return burst;
+      }
+}
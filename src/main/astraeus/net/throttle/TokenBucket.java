@@ -0,0 +1,86 @@
+package main.astraeus.net.throttle;
+
+/**
+ * A token bucket that starts full and regains tokens at the rate of its {@link ThrottleType}.
+ * Not thread safe, the owning {@link ConnectionThrottle} record guards it.
+ */
+final class TokenBucket {
+
+      /**
+       * The kind of events this bucket limits.
+       */
+      private final ThrottleType type;
+
+      /**
+       * The amount of tokens left.
+       */
+      private double tokens;
+
+      /**
+       * The time, in nanoseconds, the tokens were last brought up to date.
+       */
+      private long refilled;
+
+      /**
+       * Creates a new, full {@link TokenBucket}.
+       * 
+       * @param type The kind of events this bucket limits.
+       * 
+       * @param now The current time, in nanoseconds.
+       */
+      TokenBucket(ThrottleType type, long now) {
+            this.type = type;
+            this.tokens = type.getBurst();
+            this.refilled = now;
+      }
+
+      /**
+       * Takes a single token.
+       * 
+       * @param now The current time, in nanoseconds.
+       * 
+       * @return {@code true} if a token was taken, {@code false} if the bucket is empty.
+       */
+      boolean take(long now) {
+            refill(now);
+            if (tokens < 1) {
+                  return false;
+            }
+            tokens--;
+            return true;
+      }
+
+      /**
+       * Determines if the bucket has no whole token left.
+       * 
+       * @param now The current time, in nanoseconds.
+       * 
+       * @return {@code true} if the bucket is empty.
+       */
+      boolean isEmpty(long now) {
+            refill(now);
+            return tokens < 1;
+      }
+
+      /**
+       * Determines if the bucket has regained every token, it no longer remembers anything.
+       * 
+       * @param now The current time, in nanoseconds.
+       * 
+       * @return {@code true} if the bucket is full.
+       */
+      boolean isFull(long now) {
+            refill(now);
+            return tokens >= type.getBurst();
+      }
+
+      /**
+       * Brings the amount of tokens up to date.
+       * 
+       * @param now The current time, in nanoseconds.
+       */
+      private void refill(long now) {
+            tokens = Math.min(type.getBurst(), tokens + (now - refilled) * type.getRate() / 1_000_000_000.0);
+            refilled = now;
+      }
+}
@@ -37,4 +37,33 @@ public class LongUtils {
             return l;
       }
 
+      /**
+       * Determines if a name keeps its identity once converted into a long value. Characters other
+       * than letters, digits, spaces and underscores convert like a space, and separators at
+       * either end are lost, so names that differ only there would share a value.
+       * 
+       * @param name The name to check.
+       * 
+       * @return {@code true} if the name is 1 to 12 letters, digits, spaces and underscores that
+       *         neither starts nor ends with a space or an underscore.
+       */
+      public static boolean isEncodable(String name) {
+            if (name.isEmpty() || name.length() > 12) {
+                  return false;
+            }
+
+            for (int i = 0; i < name.length(); i++) {
+                  final char c = name.charAt(i);
+
+                  if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                        continue;
+                  }
+
+                  if ((c != ' ' && c != '_') || i == 0 || i == name.length() - 1) {
+                        return false;
+                  }
+            }
+            return true;
+      }
+
 }
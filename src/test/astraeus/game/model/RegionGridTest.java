@@ -0,0 +1,146 @@
+package test.astraeus.game.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import main.astraeus.game.model.Position;
+import main.astraeus.game.model.RegionGrid;
+import main.astraeus.game.model.entity.mobile.npc.Npc;
+
+/**
+ * Checks the entities the {@link RegionGrid} finds near a position against a scan of every entity,
+ * while entities are added, moved across chunks and removed.
+ */
+public final class RegionGridTest {
+
+      /**
+       * The size of the square the entities are spread over, large enough for the grid's table of
+       * chunks to grow and small enough for chunks to be emptied and taken again.
+       */
+      private static final int AREA = 400;
+
+      @Test
+      public void findsWhatAScanFinds() {
+            final Random random = new Random(3222);
+            final RegionGrid<Npc> grid = new RegionGrid<>();
+            final Map<Npc, Position> positions = new IdentityHashMap<>();
+            final List<Npc> found = new ArrayList<>();
+
+            for (int round = 0; round < 20_000; round++) {
+                  final int action = random.nextInt(10);
+
+                  if (action < 4 || positions.isEmpty()) {
+                        final Npc npc = new Npc(0, -1);
+                        final Position position = position(random);
+                        npc.setInitialPosition(position);
+                        grid.add(npc);
+                        positions.put(npc, position);
+                  } else if (action < 8) {
+                        final Npc npc = any(positions, random);
+                        final Position position = random.nextBoolean() ? position(random)
+                                    : new Position(npc.getPosition().getX() + random.nextInt(3) - 1,
+                                                npc.getPosition().getY() + random.nextInt(3) - 1, npc.getPosition().getHeight());
+                        npc.setInitialPosition(position);
+                        grid.update(npc);
+                        positions.put(npc, position);
+                  } else {
+                        final Npc npc = any(positions, random);
+                        grid.remove(npc);
+                        positions.remove(npc);
+                  }
+
+                  if (round % 20 == 0) {
+                        final Position center = position(random);
+                        final int distance = random.nextInt(20);
+
+                        assertSame(found, grid.getWithin(center, distance, found));
+                        assertEquals("round " + round, scan(positions, center, distance), identities(found));
+                  }
+            }
+            assertEquals(positions.size(), grid.size());
+
+            for (Npc npc : new ArrayList<>(positions.keySet())) {
+                  grid.remove(npc);
+            }
+            assertEquals(0, grid.size());
+            assertEquals(0, grid.getWithin(new Position(AREA / 2, AREA / 2), AREA, found).size());
+      }
+
+      /**
+       * Returns a random position in the area, on one of two height levels.
+       * 
+       * @param random The source of randomness.
+       * 
+       * @return The position.
+       */
+      private static Position position(Random random) {
+            return new Position(random.nextInt(AREA), random.nextInt(AREA), random.nextInt(2));
+      }
+
+      /**
+       * Returns a random entity.
+       * 
+       * @param positions The entities and their positions.
+       * 
+       * @param random The source of randomness.
+       * 
+       * @return The entity.
+       */
+      private static Npc any(Map<Npc, Position> positions, Random random) {
+            final int skip = random.nextInt(positions.size());
+            int index = 0;
+
+            for (Npc npc : positions.keySet()) {
+                  if (index++ == skip) {
+                        return npc;
+                  }
+            }
+            throw new IllegalStateException();
+      }
+
+      /**
+       * Finds the entities within a distance of a position by looking at every one of them.
+       * 
+       * @param positions The entities and their positions.
+       * 
+       * @param center The position of interest.
+       * 
+       * @param distance The greatest distance on either axis.
+       * 
+       * @return The entities found.
+       */
+      private static Set<Npc> scan(Map<Npc, Position> positions, Position center, int distance) {
+            final Set<Npc> found = Collections.newSetFromMap(new IdentityHashMap<>());
+
+            for (Map.Entry<Npc, Position> entry : positions.entrySet()) {
+                  if (entry.getValue().isWithinDistance(center, distance)) {
+                        found.add(entry.getKey());
+                  }
+            }
+            return found;
+      }
+
+      /**
+       * Returns the entities of a list as a set, checking none is listed twice.
+       * 
+       * @param entities The list of interest.
+       * 
+       * @return The set of the entities.
+       */
+      private static Set<Npc> identities(List<Npc> entities) {
+            final Set<Npc> set = Collections.newSetFromMap(new IdentityHashMap<>());
+            set.addAll(entities);
+            assertEquals(entities.size(), set.size());
+            return set;
+      }
+}
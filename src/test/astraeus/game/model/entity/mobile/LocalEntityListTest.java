@@ -0,0 +1,94 @@
+package test.astraeus.game.model.entity.mobile;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import main.astraeus.game.model.entity.mobile.LocalEntityList;
+import main.astraeus.game.model.entity.mobile.npc.Npc;
+
+/**
+ * Checks a {@link LocalEntityList} keeps its entities in the order they were added, as the client
+ * expects them, while entities are removed by slot, removed while it is walked and added again.
+ */
+public final class LocalEntityListTest {
+
+      /**
+       * The amount of slots the entities are in.
+       */
+      private static final int SLOTS = 600;
+
+      /**
+       * The most entities that are listed.
+       */
+      private static final int CAPACITY = 255;
+
+      @Test
+      public void keepsTheOrderOfAnArrayList() {
+            final Random random = new Random(255);
+            final Npc[] npcs = new Npc[SLOTS];
+
+            for (int slot = 0; slot < SLOTS; slot++) {
+                  npcs[slot] = new Npc(0, slot);
+            }
+
+            final LocalEntityList<Npc> list = new LocalEntityList<>(SLOTS, CAPACITY);
+            final List<Npc> expected = new ArrayList<>();
+
+            for (int round = 0; round < 20_000; round++) {
+                  final Npc npc = npcs[random.nextInt(SLOTS)];
+
+                  switch (random.nextInt(4)) {
+                        case 0:
+                        case 1:
+                              final boolean added = !expected.contains(npc) && expected.size() < CAPACITY;
+                              assertEquals(added, list.add(npc));
+
+                              if (added) {
+                                    expected.add(npc);
+                              }
+                              break;
+
+                        case 2:
+                              assertEquals(expected.remove(npc), list.remove(npc));
+                              break;
+
+                        default:
+                              final Iterator<Npc> iterator = list.iterator();
+                              final Iterator<Npc> reference = expected.iterator();
+
+                              while (iterator.hasNext()) {
+                                    assertEquals(reference.next(), iterator.next());
+
+                                    if (random.nextInt(8) == 0) {
+                                          iterator.remove();
+                                          reference.remove();
+                                    }
+                              }
+                              assertEquals(false, reference.hasNext());
+                              break;
+                  }
+
+                  assertEquals(expected.size(), list.size());
+                  assertEquals(expected.contains(npc), list.contains(npc));
+            }
+
+            final List<Npc> walked = new ArrayList<>();
+            list.forEach(walked::add);
+            assertEquals(expected, walked);
+
+            list.clear();
+            assertEquals(0, list.size());
+            assertEquals(false, list.iterator().hasNext());
+      }
+
+      @Test(expected = IllegalArgumentException.class)
+      public void refusesMoreThanAByteCanCount() {
+            new LocalEntityList<Npc>(SLOTS, 257);
+      }
+}
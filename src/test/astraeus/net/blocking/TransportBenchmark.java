@@ -0,0 +1,172 @@
+package test.astraeus.net.blocking;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import main.astraeus.net.NetworkConstants;
+import main.astraeus.net.NetworkTransport;
+import main.astraeus.net.blocking.BlockingTransport;
+import main.astraeus.net.reactor.NetworkAcceptor;
+import main.astraeus.net.reactor.NetworkReactorGroup;
+
+/**
+ * Compares the connection handling of the two {@link NetworkTransport}s. Every round opens a
+ * number of concurrent connections against a transport running in this process, times the
+ * handshake round trip of each and keeps them all open until the round is over.
+ *
+ * <p>
+ * Run it with the test classpath, optionally naming the transports and the connection counts:
+ * {@code java test.astraeus.net.blocking.TransportBenchmark BLOCKING,SELECTOR 500,1000,2000}.
+ * </p>
+ */
+public final class TransportBenchmark {
+
+      /**
+       * The amount of threads the clients connect from.
+       */
+      private static final int CLIENT_THREADS = 64;
+
+      /**
+       * The amount of connections opened before the measured rounds, to warm the transport up.
+       */
+      private static final int WARM_UP_CONNECTIONS = 200;
+
+      /**
+       * The handshake request, a game connection followed by the name hash.
+       */
+      private static final byte[] HANDSHAKE = {14, 0};
+
+      /**
+       * The size of the handshake response.
+       */
+      private static final int HANDSHAKE_RESPONSE = 17;
+
+      /**
+       * Prevents instantiation of this class.
+       */
+      private TransportBenchmark() {
+
+      }
+
+      public static void main(String[] args) throws Exception {
+            final String[] transports = args.length > 0 ? args[0].split(",") : new String[] {"BLOCKING", "SELECTOR"};
+            final String[] rounds = args.length > 1 ? args[1].split(",") : new String[] {"500", "1000", "2000"};
+
+            for (String name : transports) {
+                  final NetworkTransport transport = NetworkTransport.valueOf(name);
+
+                  run(transport, WARM_UP_CONNECTIONS, false);
+
+                  for (String round : rounds) {
+                        run(transport, Integer.parseInt(round), true);
+                  }
+            }
+      }
+
+      /**
+       * Runs a single round against a freshly started transport.
+       *
+       * @param transport The transport to run the round against.
+       *
+       * @param connections The amount of concurrent connections.
+       *
+       * @param report The flag that denotes the results are printed.
+       */
+      private static void run(NetworkTransport transport, int connections, boolean report) throws Exception {
+            final ServerSocketChannel channel = ServerSocketChannel.open();
+            channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), connections);
+
+            final Runnable shutdown;
+
+            if (transport == NetworkTransport.BLOCKING) {
+                  final BlockingTransport blocking = new BlockingTransport(channel);
+                  blocking.start();
+                  shutdown = blocking::shutdown;
+            } else {
+                  final NetworkAcceptor acceptor = new NetworkAcceptor(channel, new NetworkReactorGroup(NetworkConstants.NETWORK_WORKERS));
+                  acceptor.start();
+                  shutdown = acceptor::shutdown;
+            }
+
+            final InetSocketAddress address = (InetSocketAddress) channel.getLocalAddress();
+            final ExecutorService clients = Executors.newFixedThreadPool(CLIENT_THREADS);
+            final List<Socket> open = new ArrayList<>(connections);
+            final long[] roundTrips = new long[connections];
+            final List<Future<?>> futures = new ArrayList<>(connections);
+            final long start = System.nanoTime();
+
+            for (int index = 0; index < connections; index++) {
+                  final int client = index;
+                  futures.add(clients.submit(() -> {
+                        final Socket socket = new Socket();
+                        synchronized (open) {
+                              open.add(socket);
+                        }
+                        socket.setTcpNoDelay(true);
+                        socket.connect(address);
+
+                        final long sent = System.nanoTime();
+                        socket.getOutputStream().write(HANDSHAKE);
+                        new DataInputStream(socket.getInputStream()).readFully(new byte[HANDSHAKE_RESPONSE]);
+                        roundTrips[client] = System.nanoTime() - sent;
+                        return null;
+                  }));
+            }
+
+            int failed = 0;
+            for (Future<?> future : futures) {
+                  try {
+                        future.get();
+                  } catch (ExecutionException exception) {
+                        failed++;
+                  }
+            }
+
+            final double seconds = (System.nanoTime() - start) / 1e9;
+            final int threads = ManagementFactory.getThreadMXBean().getThreadCount();
+
+            for (Socket socket : open) {
+                  try {
+                        socket.close();
+                  } catch (IOException exception) {
+                        // the round is over, a socket that won't close doesn't matter
+                  }
+            }
+            clients.shutdown();
+            shutdown.run();
+
+            if (!report) {
+                  return;
+            }
+
+            final int completed = connections - failed;
+            final long[] sorted = roundTrips.clone();
+            Arrays.sort(sorted);
+
+            /*
+             * A failed connection never records a round trip, those are the zeroes at the front.
+             */
+            final long[] times = Arrays.copyOfRange(sorted, failed, connections);
+
+            if (times.length == 0) {
+                  System.out.printf("%-8s n=%-5d every connection failed%n", transport, connections);
+                  return;
+            }
+
+            System.out.printf("%-8s n=%-5d ok=%-5d %6.0f/s p50 %7.2f ms p99 %7.2f ms max %7.2f ms, %d platform threads%n", transport,
+                        connections, completed, completed / seconds, times[times.length / 2] / 1e6,
+                        times[(int) (times.length * 0.99)] / 1e6, times[times.length - 1] / 1e6, threads);
+      }
+}
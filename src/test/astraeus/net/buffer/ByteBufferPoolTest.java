@@ -0,0 +1,91 @@
+package test.astraeus.net.buffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import main.astraeus.Configuration;
+import main.astraeus.net.buffer.ByteBufferPool;
+
+/**
+ * Checks the {@link ByteBufferPool} hands out every pooled buffer once.
+ */
+public final class ByteBufferPoolTest {
+
+      /**
+       * The capacity of the buffers, in the largest size class, which nothing else uses.
+       */
+      private static final int CAPACITY = 40_000;
+
+      /**
+       * More acquisitions than the size class can retain buffers.
+       */
+      private static final int ACQUISITIONS = 128;
+
+      /**
+       * The leak detection flag as it was before the test.
+       */
+      private boolean leakDetection;
+
+      @Before
+      public void enableLeakDetection() {
+            leakDetection = Configuration.BUFFER_LEAK_DETECTION;
+            Configuration.BUFFER_LEAK_DETECTION = true;
+      }
+
+      @After
+      public void restoreLeakDetection() {
+            Configuration.BUFFER_LEAK_DETECTION = leakDetection;
+      }
+
+      @Test
+      public void doubleReleaseIsPooledOnce() {
+            final ByteBuffer buffer = ByteBufferPool.acquire(CAPACITY);
+            ByteBufferPool.release(buffer);
+            ByteBufferPool.release(buffer);
+
+            final ByteBuffer[] acquired = new ByteBuffer[ACQUISITIONS];
+            int handedOut = 0;
+
+            for (int index = 0; index < acquired.length; index++) {
+                  acquired[index] = ByteBufferPool.acquire(CAPACITY);
+
+                  if (acquired[index] == buffer) {
+                        handedOut++;
+                  }
+            }
+
+            for (ByteBuffer released : acquired) {
+                  ByteBufferPool.release(released);
+            }
+            assertEquals(1, handedOut);
+      }
+
+      @Test
+      public void reusedBuffersAreCleared() {
+            final ByteBuffer buffer = ByteBufferPool.acquire(CAPACITY);
+            buffer.order(ByteOrder.LITTLE_ENDIAN).putInt(43594).flip();
+            ByteBufferPool.release(buffer);
+
+            for (int index = 0; index < ACQUISITIONS; index++) {
+                  final ByteBuffer acquired = ByteBufferPool.acquire(CAPACITY);
+
+                  assertEquals(ByteOrder.BIG_ENDIAN, acquired.order());
+                  assertEquals(0, acquired.position());
+                  assertEquals(acquired.capacity(), acquired.limit());
+                  assertTrue(acquired.capacity() >= CAPACITY);
+
+                  if (acquired == buffer) {
+                        ByteBufferPool.release(acquired);
+                        return;
+                  }
+                  ByteBufferPool.release(acquired);
+            }
+      }
+}
@@ -0,0 +1,225 @@
+package test.astraeus.net.ondemand;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import main.astraeus.net.NetworkConstants;
+import main.astraeus.net.ondemand.FileCache;
+import main.astraeus.net.ondemand.OnDemandService;
+
+/**
+ * Serves the files of a small synthetic cache and checks the chunks the client receives put the
+ * files back together byte for byte. The sectors of the files are interleaved in the data file and
+ * the chunks don't line up with them, so a chunk is regularly made of the end of one sector and
+ * the start of the next.
+ */
+public final class OnDemandServiceTest {
+
+      /**
+       * The lengths of the files of the first type, one per file id. They cover a single partial
+       * sector, an exactly full sector, one byte past it and files spanning several sectors.
+       */
+      private static final int[] LENGTHS = {100, FileCache.SECTOR_DATA_SIZE, FileCache.SECTOR_DATA_SIZE + 1, 1200, 5000};
+
+      /**
+       * The value of an urgent request.
+       */
+      private static final int URGENT = 2;
+
+      /**
+       * The time in milliseconds the client waits for data before the test fails.
+       */
+      private static final int READ_TIMEOUT = 5000;
+
+      @Rule
+      public final TemporaryFolder folder = new TemporaryFolder();
+
+      /**
+       * The contents of every file.
+       */
+      private final byte[][] files = new byte[LENGTHS.length][];
+
+      /**
+       * The socket the test's client connects to.
+       */
+      private ServerSocketChannel server;
+
+      @Before
+      public void start() throws IOException {
+            final Random random = new Random(317);
+            for (int file = 0; file < files.length; file++) {
+                  files[file] = new byte[LENGTHS[file]];
+                  random.nextBytes(files[file]);
+            }
+
+            final Path directory = folder.getRoot().toPath();
+            write(directory);
+            OnDemandService.start(directory);
+
+            server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+      }
+
+      @After
+      public void stop() throws IOException {
+            OnDemandService.shutdown();
+            server.close();
+      }
+
+      @Test
+      public void chunksReassembleTheFiles() throws IOException {
+            try (Socket client = new Socket(InetAddress.getLoopbackAddress(), server.socket().getLocalPort())) {
+                  client.setSoTimeout(READ_TIMEOUT);
+
+                  /*
+                   * The first request arrives with the handshake, the rest are sent afterwards.
+                   */
+                  final SocketChannel accepted = server.accept();
+                  assertTrue(OnDemandService.transfer(accepted, ByteBuffer.wrap(request(0))));
+
+                  final OutputStream output = client.getOutputStream();
+                  for (int file = 1; file < files.length; file++) {
+                        output.write(request(file));
+                  }
+                  output.flush();
+
+                  final DataInputStream input = new DataInputStream(client.getInputStream());
+                  input.readFully(new byte[8]);
+
+                  final byte[][] received = new byte[files.length][];
+                  final int[] receivedBytes = new int[files.length];
+                  int completed = 0;
+
+                  while (completed < files.length) {
+                        final int type = input.readUnsignedByte();
+                        final int file = input.readUnsignedShort();
+                        final int length = input.readUnsignedShort();
+                        final int chunk = input.readUnsignedByte();
+
+                        assertEquals(0, type);
+                        assertEquals(LENGTHS[file], length);
+
+                        if (received[file] == null) {
+                              received[file] = new byte[length];
+                        }
+
+                        final int offset = chunk * NetworkConstants.ONDEMAND_CHUNK_SIZE;
+                        final int size = Math.min(NetworkConstants.ONDEMAND_CHUNK_SIZE, length - offset);
+                        assertEquals("chunk " + chunk + " of file " + file, receivedBytes[file], offset);
+
+                        input.readFully(received[file], offset, size);
+                        receivedBytes[file] += size;
+
+                        if (receivedBytes[file] == length) {
+                              completed++;
+                        }
+                  }
+
+                  for (int file = 0; file < files.length; file++) {
+                        assertArrayEquals("file " + file, files[file], received[file]);
+                  }
+            }
+      }
+
+      /**
+       * Writes the cache, the files of the first type are stored in its second index.
+       *
+       * @param directory The directory of the cache.
+       *
+       * @throws IOException The exception thrown if a file could not be written.
+       */
+      private void write(Path directory) throws IOException {
+            final int[] sectorCounts = new int[files.length];
+            int sectorTotal = 0;
+
+            for (int file = 0; file < files.length; file++) {
+                  sectorCounts[file] = (LENGTHS[file] + FileCache.SECTOR_DATA_SIZE - 1) / FileCache.SECTOR_DATA_SIZE;
+                  sectorTotal += sectorCounts[file];
+            }
+
+            /*
+             * Sector 0 is never used. The files take turns on the following sectors, so no file is
+             * stored contiguously once its neighbours have more parts.
+             */
+            final int[][] sectors = new int[files.length][];
+            for (int file = 0; file < files.length; file++) {
+                  sectors[file] = new int[sectorCounts[file]];
+            }
+
+            int next = 1;
+            for (int part = 0; next <= sectorTotal; part++) {
+                  for (int file = 0; file < files.length; file++) {
+                        if (part < sectorCounts[file]) {
+                              sectors[file][part] = next++;
+                        }
+                  }
+            }
+
+            final ByteBuffer data = ByteBuffer.allocate((sectorTotal + 1) * FileCache.SECTOR_SIZE);
+            final ByteBuffer index = ByteBuffer.allocate(files.length * FileCache.INDEX_SIZE);
+
+            for (int file = 0; file < files.length; file++) {
+                  putMedium(index, LENGTHS[file]);
+                  putMedium(index, sectors[file][0]);
+
+                  for (int part = 0; part < sectorCounts[file]; part++) {
+                        final int from = part * FileCache.SECTOR_DATA_SIZE;
+                        final int size = Math.min(FileCache.SECTOR_DATA_SIZE, LENGTHS[file] - from);
+
+                        data.position(sectors[file][part] * FileCache.SECTOR_SIZE);
+                        data.putShort((short) file);
+                        data.putShort((short) part);
+                        putMedium(data, part + 1 < sectorCounts[file] ? sectors[file][part + 1] : 0);
+                        data.put((byte) 1);
+                        data.put(files[file], from, size);
+                  }
+            }
+
+            Files.write(directory.resolve(FileCache.DATA_FILE), data.array());
+            for (int number = 0; number < FileCache.INDEX_COUNT; number++) {
+                  Files.write(directory.resolve(FileCache.INDEX_FILE + number), number == 1 ? index.array() : new byte[0]);
+            }
+      }
+
+      /**
+       * Creates a request for a file of the first type.
+       *
+       * @param file The id of the file.
+       *
+       * @return The request as the client sends it.
+       */
+      private static byte[] request(int file) {
+            return new byte[] {0, (byte) (file >> 8), (byte) file, URGENT};
+      }
+
+      /**
+       * Writes an unsigned, big endian, 24 bit value.
+       *
+       * @param buffer The buffer to write to.
+       *
+       * @param value The value.
+       */
+      private static void putMedium(ByteBuffer buffer, int value) {
+            buffer.put((byte) (value >> 16)).put((byte) (value >> 8)).put((byte) value);
+      }
+}
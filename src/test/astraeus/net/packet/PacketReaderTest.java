@@ -0,0 +1,155 @@
+package test.astraeus.net.packet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import main.astraeus.net.packet.PacketHeader;
+import main.astraeus.net.packet.PacketReader;
+import main.astraeus.net.packet.PacketWriter;
+import main.astraeus.net.packet.incoming.IncomingPacket;
+import main.astraeus.net.protocol.codec.ByteModification;
+import main.astraeus.net.protocol.codec.ByteOrder;
+
+/**
+ * Checks the values read by the {@link PacketReader} against the per-byte decoding it replaced,
+ * and that everything the {@link PacketWriter} writes reads back the same.
+ */
+public final class PacketReaderTest {
+
+      @Test
+      public void shortsMatchPerByteDecoding() {
+            for (ByteOrder order : ByteOrder.values()) {
+                  for (ByteModification modification : ByteModification.values()) {
+                        for (long value : PacketWriterTest.values()) {
+                              final byte[] bytes = new byte[Short.BYTES];
+                              ByteBuffer.wrap(bytes).putShort((short) value);
+
+                              if (ReferenceCodec.layout(Short.BYTES, order) == null) {
+                                    try {
+                                          reader(bytes).readShort(true, order, modification);
+                                          fail("A " + order + " short must be refused.");
+                                    } catch (UnsupportedOperationException expected) {
+                                          break;
+                                    }
+                              }
+
+                              final long expected = ReferenceCodec.decode(bytes, order, modification);
+                              final String message = order + " " + modification + " " + value;
+
+                              /*
+                               * The per-byte decoding never sign extended a short, signed or not.
+                               */
+                              assertEquals(message, expected, reader(bytes).readShort(true, order, modification));
+                              assertEquals(message, expected, reader(bytes).readShort(false, order, modification));
+                        }
+                  }
+            }
+      }
+
+      @Test
+      public void intsMatchPerByteDecoding() {
+            for (ByteOrder order : ByteOrder.values()) {
+                  for (ByteModification modification : ByteModification.values()) {
+                        for (long value : PacketWriterTest.values()) {
+                              final byte[] bytes = new byte[Integer.BYTES];
+                              ByteBuffer.wrap(bytes).putInt((int) value);
+
+                              final long expected = ReferenceCodec.decode(bytes, order, modification);
+                              final String message = order + " " + modification + " " + value;
+
+                              assertEquals(message, (int) expected, reader(bytes).readInt(true, order, modification));
+                              assertEquals(message, (int) expected, reader(bytes).readInt(false, order, modification));
+                        }
+                  }
+            }
+      }
+
+      @Test
+      public void longsMatchPerByteDecoding() {
+            for (ByteOrder order : ByteOrder.values()) {
+                  for (ByteModification modification : ByteModification.values()) {
+                        for (long value : PacketWriterTest.values()) {
+                              final byte[] bytes = new byte[Long.BYTES];
+                              ByteBuffer.wrap(bytes).putLong(value);
+
+                              if (ReferenceCodec.layout(Long.BYTES, order) == null) {
+                                    try {
+                                          reader(bytes).readLong(true, order, modification);
+                                          fail("A " + order + " long must be refused.");
+                                    } catch (UnsupportedOperationException expected) {
+                                          break;
+                                    }
+                              }
+
+                              final long expected = ReferenceCodec.decode(bytes, order, modification);
+                              final String message = order + " " + modification + " " + value;
+
+                              assertEquals(message, expected, reader(bytes).readLong(true, order, modification));
+                              assertEquals(message, expected, reader(bytes).readLong(false, order, modification));
+                        }
+                  }
+            }
+      }
+
+      @Test
+      public void unsignedLongKeepsItsHighBits() {
+            final long value = 0x8000000012345678L;
+            final byte[] bytes = new byte[Long.BYTES];
+            ByteBuffer.wrap(bytes).putLong(value);
+
+            assertEquals(value, reader(bytes).readLong(false));
+            assertEquals(value, reader(bytes).readLong(true));
+            assertEquals(-1L, reader(new byte[] {-1, -1, -1, -1, -1, -1, -1, -1}).readLong(false));
+      }
+
+      @Test
+      public void writtenValuesReadBack() {
+            for (ByteOrder order : ByteOrder.values()) {
+                  for (ByteModification modification : ByteModification.values()) {
+                        for (long value : PacketWriterTest.values()) {
+                              final String message = order + " " + modification + " " + value;
+
+                              final PacketWriter ints = new PacketWriter(ByteBuffer.allocate(Integer.BYTES));
+                              ints.writeInt((int) value, modification, order);
+                              assertEquals(message, (int) value, reader(PacketWriterTest.written(ints)).readInt(true, order, modification));
+
+                              if (ReferenceCodec.layout(Short.BYTES, order) != null) {
+                                    final PacketWriter shorts = new PacketWriter(ByteBuffer.allocate(Short.BYTES));
+                                    shorts.writeShort((int) value, modification, order);
+                                    assertEquals(message, value & 0xFFFF, reader(PacketWriterTest.written(shorts)).readShort(false, order, modification));
+                              }
+                        }
+                  }
+            }
+      }
+
+      @Test
+      public void bytesReadBack() {
+            for (ByteModification modification : ByteModification.values()) {
+                  final byte[] bytes = new byte[256];
+                  final PacketWriter writer = new PacketWriter(ByteBuffer.allocate(bytes.length));
+
+                  for (int value = 0; value < bytes.length; value++) {
+                        bytes[value] = (byte) value;
+                        writer.write(value, modification);
+                  }
+                  assertEquals(modification.toString(), ByteBuffer.wrap(bytes),
+                              ByteBuffer.wrap(reader(PacketWriterTest.written(writer)).readBytes(bytes.length, modification)));
+            }
+      }
+
+      /**
+       * Creates a reader over a payload.
+       *
+       * @param bytes The payload.
+       *
+       * @return The created reader.
+       */
+      private static PacketReader reader(byte[] bytes) {
+            return new PacketReader(new IncomingPacket(0, PacketHeader.FIXED, ByteBuffer.wrap(bytes)));
+      }
+}
@@ -0,0 +1,259 @@
+package test.astraeus.net.packet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+import main.astraeus.net.packet.PacketWriter;
+import main.astraeus.net.protocol.codec.AccessType;
+import main.astraeus.net.protocol.codec.ByteModification;
+import main.astraeus.net.protocol.codec.ByteOrder;
+
+/**
+ * Checks the output of the {@link PacketWriter} byte for byte against the per-byte encoding it
+ * replaced.
+ */
+public final class PacketWriterTest {
+
+      /**
+       * The values every primitive is written with, next to the random ones.
+       */
+      private static final long[] EDGE_VALUES = {0, 1, -1, 0x7F, 0x80, 0xFF, 0x100, 0x7FFF, 0x8000, 0xFFFF,
+                  Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, 0x0123456789ABCDEFL};
+
+      /**
+       * The amount of random values every primitive is written with.
+       */
+      private static final int RANDOM_VALUES = 500;
+
+      @Test
+      public void shortsMatchPerByteEncoding() {
+            for (ByteOrder order : ByteOrder.values()) {
+                  for (ByteModification modification : ByteModification.values()) {
+                        for (long value : values()) {
+                              final PacketWriter writer = new PacketWriter(ByteBuffer.allocate(Short.BYTES));
+
+                              if (ReferenceCodec.layout(Short.BYTES, order) == null) {
+                                    try {
+                                          writer.writeShort((int) value, modification, order);
+                                          fail("A " + order + " short must be refused.");
+                                    } catch (IllegalArgumentException expected) {
+                                          break;
+                                    }
+                              }
+                              writer.writeShort((int) value, modification, order);
+                              assertArrayEquals(order + " " + modification + " " + value,
+                                          ReferenceCodec.encode(value, Short.BYTES, order, modification), written(writer));
+                        }
+                  }
+            }
+      }
+
+      @Test
+      public void intsMatchPerByteEncoding() {
+            for (ByteOrder order : ByteOrder.values()) {
+                  for (ByteModification modification : ByteModification.values()) {
+                        for (long value : values()) {
+                              final PacketWriter writer = new PacketWriter(ByteBuffer.allocate(Integer.BYTES));
+                              writer.writeInt((int) value, modification, order);
+                              assertArrayEquals(order + " " + modification + " " + value,
+                                          ReferenceCodec.encode(value, Integer.BYTES, order, modification), written(writer));
+                        }
+                  }
+            }
+      }
+
+      @Test
+      public void bitsCrossingTheRegisterFlush() {
+            /*
+             * Every run leaves a different amount of bits pending in the register before a full
+             * 32 bit write pushes it past 64 bits.
+             */
+            for (int pending = 0; pending < 64; pending++) {
+                  final PacketWriter writer = new PacketWriter().allocate(16);
+                  final BitStream expected = new BitStream();
+
+                  writer.setAccessType(AccessType.BIT_ACCESS);
+
+                  int remaining = pending;
+                  while (remaining > 0) {
+                        final int amount = Math.min(remaining, 31);
+                        writer.writeBits(amount, 0x55555555);
+                        expected.writeBits(amount, 0x55555555);
+                        remaining -= amount;
+                  }
+
+                  for (int value : new int[] {-1, 0x80000001, 0, 0xDEADBEEF}) {
+                        writer.writeBits(32, value);
+                        expected.writeBits(32, value);
+                  }
+                  writer.writeBits(1, 1);
+                  expected.writeBits(1, 1);
+
+                  writer.setAccessType(AccessType.BYTE_ACCESS);
+                  expected.align();
+
+                  assertArrayEquals("pending " + pending, expected.toByteArray(), written(writer));
+                  writer.release();
+            }
+      }
+
+      @Test
+      public void bitsMaskTheirValue() {
+            final PacketWriter writer = new PacketWriter(ByteBuffer.allocate(4));
+            writer.setAccessType(AccessType.BIT_ACCESS);
+            writer.writeBits(3, 0xFF).writeBits(2, -1).writeBits(11, 0xFFFF0000 | 2047);
+            writer.setAccessType(AccessType.BYTE_ACCESS);
+
+            assertArrayEquals(new byte[] {(byte) 0xFF, (byte) 0xFF}, written(writer));
+      }
+
+      @Test
+      public void bitsMixedWithBytesMatchBitStream() {
+            final Random random = new Random(317);
+
+            for (int run = 0; run < 2000; run++) {
+
+                  /*
+                   * Starts out small, so the buffer has to grow while bits are being written.
+                   */
+                  final PacketWriter writer = new PacketWriter().allocate(1);
+                  final BitStream expected = new BitStream();
+                  final int blocks = random.nextInt(12);
+
+                  for (int block = 0; block < blocks; block++) {
+                        if (random.nextBoolean()) {
+                              writer.setAccessType(AccessType.BIT_ACCESS);
+
+                              final int writes = random.nextInt(40);
+                              for (int index = 0; index < writes; index++) {
+                                    final int amount = 1 + random.nextInt(32);
+                                    final int value = random.nextInt();
+                                    writer.writeBits(amount, value);
+                                    expected.writeBits(amount, value);
+                              }
+                              writer.setAccessType(AccessType.BYTE_ACCESS);
+                              expected.align();
+                        } else if (writer.getBuffer().hasRemaining()) {
+
+                              /*
+                               * Only bit access grows the buffer, a byte is written while it fits.
+                               */
+                              final int value = random.nextInt();
+                              writer.write(value);
+                              expected.write(value);
+                        }
+                  }
+
+                  assertArrayEquals("run " + run, expected.toByteArray(), written(writer));
+                  writer.release();
+            }
+      }
+
+      /**
+       * Returns the edge values followed by random ones.
+       *
+       * @return The values.
+       */
+      static long[] values() {
+            final Random random = new Random(43594);
+            final long[] values = new long[EDGE_VALUES.length + RANDOM_VALUES];
+
+            System.arraycopy(EDGE_VALUES, 0, values, 0, EDGE_VALUES.length);
+
+            for (int index = EDGE_VALUES.length; index < values.length; index++) {
+                  values[index] = random.nextLong();
+            }
+            return values;
+      }
+
+      /**
+       * Returns the bytes a writer has written so far, the writer is left as it was.
+       *
+       * @param writer The writer.
+       *
+       * @return The written bytes.
+       */
+      static byte[] written(PacketWriter writer) {
+            final ByteBuffer buffer = writer.getBuffer().duplicate();
+            buffer.flip();
+
+            final byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+      }
+
+      /**
+       * A stream of bits written one at a time, most significant first, as the client reads them.
+       */
+      private static final class BitStream {
+
+            /**
+             * The bytes that are complete.
+             */
+            private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+            /**
+             * The bits of the byte that is being written.
+             */
+            private int current;
+
+            /**
+             * The amount of bits in the byte that is being written.
+             */
+            private int count;
+
+            /**
+             * Writes the lowest bits of a value.
+             *
+             * @param amount The amount of bits.
+             *
+             * @param value The value.
+             */
+            void writeBits(int amount, int value) {
+                  for (int bit = amount - 1; bit >= 0; bit--) {
+                        current = current << 1 | (value >>> bit & 1);
+
+                        if (++count == Byte.SIZE) {
+                              bytes.write(current);
+                              current = 0;
+                              count = 0;
+                        }
+                  }
+            }
+
+            /**
+             * Pads the byte that is being written with zeroes.
+             */
+            void align() {
+                  if (count > 0) {
+                        bytes.write(current << (Byte.SIZE - count));
+                        current = 0;
+                        count = 0;
+                  }
+            }
+
+            /**
+             * Writes a whole byte, the stream must be aligned.
+             *
+             * @param value The byte.
+             */
+            void write(int value) {
+                  bytes.write(value);
+            }
+
+            /**
+             * Returns the bytes that are complete.
+             *
+             * @return The bytes.
+             */
+            byte[] toByteArray() {
+                  return bytes.toByteArray();
+            }
+      }
+}
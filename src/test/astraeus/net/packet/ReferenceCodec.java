@@ -0,0 +1,113 @@
+package test.astraeus.net.packet;
+
+import main.astraeus.net.protocol.codec.ByteModification;
+import main.astraeus.net.protocol.codec.ByteOrder;
+
+/**
+ * The per-byte encoding the packet codecs used before they moved to native primitive access. A
+ * value is laid out one byte at a time and the modification is applied to its least significant
+ * byte only, exactly like the old {@code writeByte}/{@code readByte} chains.
+ */
+final class ReferenceCodec {
+
+      /**
+       * The shift of every byte of a short, in the order they are written.
+       */
+      private static final int[] SHORT_BIG = {8, 0}, SHORT_LITTLE = {0, 8};
+
+      /**
+       * The shift of every byte of an integer, in the order they are written.
+       */
+      private static final int[] INT_BIG = {24, 16, 8, 0}, INT_LITTLE = {0, 8, 16, 24},
+                  INT_MIDDLE = {8, 0, 24, 16}, INT_INVERSE = {16, 24, 0, 8};
+
+      /**
+       * The shift of every byte of a long, in the order they are written.
+       */
+      private static final int[] LONG_BIG = {56, 48, 40, 32, 24, 16, 8, 0},
+                  LONG_LITTLE = {0, 8, 16, 24, 32, 40, 48, 56};
+
+      /**
+       * Prevents instantiation of this class.
+       */
+      private ReferenceCodec() {
+
+      }
+
+      /**
+       * Returns the layout of a value, or {@code null} if the codecs don't support it.
+       *
+       * @param width The width of the value, in bytes.
+       *
+       * @param order The order the bytes are written in.
+       *
+       * @return The shift of every byte, in the order they are written.
+       */
+      static int[] layout(int width, ByteOrder order) {
+            switch (width) {
+                  case Short.BYTES:
+                        return order == ByteOrder.BIG ? SHORT_BIG : order == ByteOrder.LITTLE ? SHORT_LITTLE : null;
+
+                  case Integer.BYTES:
+                        switch (order) {
+                              case BIG:
+                                    return INT_BIG;
+                              case LITTLE:
+                                    return INT_LITTLE;
+                              case MIDDLE:
+                                    return INT_MIDDLE;
+                              default:
+                                    return INT_INVERSE;
+                        }
+
+                  default:
+                        return order == ByteOrder.BIG ? LONG_BIG : order == ByteOrder.LITTLE ? LONG_LITTLE : null;
+            }
+      }
+
+      /**
+       * Encodes a value one byte at a time.
+       *
+       * @param value The value to encode.
+       *
+       * @param width The width of the value, in bytes.
+       *
+       * @param order The order the bytes are written in.
+       *
+       * @param modification The modification of the least significant byte.
+       *
+       * @return The encoded bytes.
+       */
+      static byte[] encode(long value, int width, ByteOrder order, ByteModification modification) {
+            final int[] shifts = layout(width, order);
+            final byte[] bytes = new byte[width];
+
+            for (int index = 0; index < width; index++) {
+                  final int part = (int) (value >> shifts[index]);
+                  bytes[index] = (byte) (shifts[index] == 0 ? modification.apply(part) : part);
+            }
+            return bytes;
+      }
+
+      /**
+       * Decodes a value one byte at a time, every byte is read unsigned.
+       *
+       * @param bytes The encoded bytes.
+       *
+       * @param order The order the bytes were written in.
+       *
+       * @param modification The modification of the least significant byte.
+       *
+       * @return The decoded value, unsigned.
+       */
+      static long decode(byte[] bytes, ByteOrder order, ByteModification modification) {
+            final int[] shifts = layout(bytes.length, order);
+            long value = 0;
+
+            for (int index = 0; index < bytes.length; index++) {
+                  final int part = shifts[index] == 0 ? modification.apply(bytes[index]) & 0xFF : bytes[index] & 0xFF;
+                  value |= (long) part << shifts[index];
+            }
+            return value;
+      }
+}
@@ -0,0 +1,147 @@
+package test.astraeus.net.protocol.codec;
+
+import java.util.Arrays;
+
+import main.astraeus.net.protocol.codec.IsaacKeystream;
+import main.astraeus.net.protocol.codec.IsaacRandom;
+
+/**
+ * Compares ciphering opcodes straight off an {@link IsaacRandom}, which regenerates inline every
+ * 256 values, with an {@link IsaacKeystream} that is topped up between ticks. Every tick ciphers
+ * the same amount of opcodes and the time each tick spent ciphering is recorded.
+ *
+ * <p>
+ * Run it with the test classpath, optionally naming the opcodes per tick and the amount of ticks:
+ * {@code java test.astraeus.net.protocol.codec.IsaacBenchmark 20 2000000}.
+ * </p>
+ */
+public final class IsaacBenchmark {
+
+      /**
+       * The seed every generator starts from.
+       */
+      private static final int[] SEED = {0x01234567, 0x89ABCDEF, 0xDEADBEEF, 0x0BADF00D};
+
+      /**
+       * The sink the ciphered values are folded into, so they aren't optimized away.
+       */
+      private static int sink;
+
+      /**
+       * Prevents instantiation of this class.
+       */
+      private IsaacBenchmark() {
+
+      }
+
+      public static void main(String[] args) {
+            final int opcodes = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+            final int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+
+            for (int round = 0; round < 3; round++) {
+                  final boolean report = round == 2;
+
+                  report("inline", cipherInline(opcodes, ticks), report);
+                  report("keystream", cipherKeystream(opcodes, ticks), report);
+            }
+
+            bulk(IsaacRandom.SIZE * 400_000);
+            System.out.println("sink " + sink);
+      }
+
+      /**
+       * Ciphers every tick's opcodes straight off the generator.
+       *
+       * @param opcodes The amount of opcodes per tick.
+       *
+       * @param ticks The amount of ticks.
+       *
+       * @return The time, in nanoseconds, every tick spent ciphering.
+       */
+      private static long[] cipherInline(int opcodes, int ticks) {
+            final IsaacRandom random = new IsaacRandom(SEED.clone());
+            final long[] durations = new long[ticks];
+
+            for (int tick = 0; tick < ticks; tick++) {
+                  final long start = System.nanoTime();
+                  for (int opcode = 0; opcode < opcodes; opcode++) {
+                        sink += opcode + random.getNextValue();
+                  }
+                  durations[tick] = System.nanoTime() - start;
+            }
+            return durations;
+      }
+
+      /**
+       * Ciphers every tick's opcodes off a keystream that is topped up after the tick.
+       *
+       * @param opcodes The amount of opcodes per tick.
+       *
+       * @param ticks The amount of ticks.
+       *
+       * @return The time, in nanoseconds, every tick spent ciphering.
+       */
+      private static long[] cipherKeystream(int opcodes, int ticks) {
+            final IsaacKeystream keystream = new IsaacKeystream(new IsaacRandom(SEED.clone()));
+            final long[] durations = new long[ticks];
+
+            for (int tick = 0; tick < ticks; tick++) {
+                  final long start = System.nanoTime();
+                  for (int opcode = 0; opcode < opcodes; opcode++) {
+                        sink += opcode + keystream.getNextValue();
+                  }
+                  durations[tick] = System.nanoTime() - start;
+                  keystream.refill();
+            }
+            return durations;
+      }
+
+      /**
+       * Compares taking values one at a time with taking them in bulk.
+       *
+       * @param values The amount of values to take.
+       */
+      private static void bulk(int values) {
+            for (int round = 0; round < 3; round++) {
+                  final IsaacRandom single = new IsaacRandom(SEED.clone());
+                  long start = System.nanoTime();
+                  for (int index = 0; index < values; index++) {
+                        sink += single.getNextValue();
+                  }
+                  final long singleNanos = System.nanoTime() - start;
+
+                  final IsaacRandom bulk = new IsaacRandom(SEED.clone());
+                  final int[] block = new int[IsaacRandom.SIZE];
+                  start = System.nanoTime();
+                  for (int index = 0; index < values; index += block.length) {
+                        bulk.getNextValues(block, 0, block.length);
+                        sink += block[0];
+                  }
+                  final long bulkNanos = System.nanoTime() - start;
+
+                  if (round == 2) {
+                        System.out.printf("%-9s %.2f ns/value single, %.2f ns/value bulk%n", "values", (double) singleNanos / values,
+                                    (double) bulkNanos / values);
+                  }
+            }
+      }
+
+      /**
+       * Prints the distribution of the time spent ciphering a tick.
+       *
+       * @param name The name of the run.
+       *
+       * @param durations The time, in nanoseconds, every tick spent ciphering.
+       *
+       * @param report The flag that denotes the distribution is printed.
+       */
+      private static void report(String name, long[] durations, boolean report) {
+            if (!report) {
+                  return;
+            }
+            Arrays.sort(durations);
+            System.out.printf("%-9s p50 %5d ns p99 %5d ns p99.9 %5d ns p99.99 %6d ns max %7d ns%n", name, durations[durations.length / 2],
+                        durations[(int) (durations.length * 0.99)], durations[(int) (durations.length * 0.999)],
+                        durations[(int) (durations.length * 0.9999)], durations[durations.length - 1]);
+      }
+}
@@ -0,0 +1,45 @@
+package test.astraeus.net.protocol.codec;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import main.astraeus.net.protocol.codec.IsaacKeystream;
+import main.astraeus.net.protocol.codec.IsaacRandom;
+
+/**
+ * Checks that an {@link IsaacKeystream} hands out the same values as its generator would, however
+ * its refills fall between them.
+ */
+public final class IsaacKeystreamTest {
+
+      @Test
+      public void matchesGenerator() {
+            final Random random = new Random(43594);
+
+            for (int run = 0; run < 200; run++) {
+                  final int[] seed = {random.nextInt(), random.nextInt(), random.nextInt(), random.nextInt()};
+                  final IsaacRandom client = new IsaacRandom(seed.clone());
+                  final IsaacKeystream keystream = new IsaacKeystream(new IsaacRandom(seed.clone()));
+
+                  for (int tick = 0; tick < 100; tick++) {
+
+                        /*
+                         * Anywhere from an idle tick to a burst that runs through the whole keystream
+                         * and has to top it up in between.
+                         */
+                        final int opcodes = random.nextInt(4) == 0 ? random.nextInt(3 * IsaacRandom.SIZE) : random.nextInt(30);
+
+                        for (int index = 0; index < opcodes; index++) {
+                              assertEquals(client.getNextValue(), keystream.getNextValue());
+                        }
+
+                        if (random.nextBoolean()) {
+                              keystream.refill();
+                        }
+                  }
+            }
+      }
+}
@@ -0,0 +1,87 @@
+package test.astraeus.net.protocol.codec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import main.astraeus.net.protocol.codec.IsaacRandom;
+
+/**
+ * Checks the keystream of the {@link IsaacRandom} against the one the 317 client generates for
+ * the same seed, and the bulk call against single values.
+ */
+public final class IsaacRandomTest {
+
+      /**
+       * The seed the known values were generated with.
+       */
+      private static final int[] SEED = {0x01234567, 0x89ABCDEF, 0xDEADBEEF, 0x0BADF00D};
+
+      @Test
+      public void matchesKnownKeystream() {
+            final IsaacRandom random = new IsaacRandom(SEED.clone());
+            final int[] values = new int[100_000];
+
+            for (int index = 0; index < values.length; index++) {
+                  values[index] = random.getNextValue();
+            }
+
+            /*
+             * Generated by the implementation the client shares, before the bulk call was added.
+             * The indices around 256 cross the first regeneration.
+             */
+            assertEquals(0x357E6407, values[0]);
+            assertEquals(0xC32E9F27, values[1]);
+            assertEquals(0x0A8EF792, values[2]);
+            assertEquals(0x90E25C9A, values[3]);
+            assertEquals(0x41FE4C03, values[255]);
+            assertEquals(0x86257B75, values[256]);
+            assertEquals(0x824A526F, values[511]);
+            assertEquals(0x5E089A8E, values[512]);
+
+            int hash = 0;
+            for (int value : values) {
+                  hash = 31 * hash + value;
+            }
+            assertEquals(0x5C8CCA75, hash);
+      }
+
+      @Test
+      public void bulkMatchesSingleValues() {
+            final Random random = new Random(317);
+
+            for (int run = 0; run < 200; run++) {
+                  final int[] seed = {random.nextInt(), random.nextInt(), random.nextInt(), random.nextInt()};
+                  final IsaacRandom single = new IsaacRandom(seed.clone());
+                  final IsaacRandom bulk = new IsaacRandom(seed.clone());
+
+                  for (int taken = 0; taken < 5_000;) {
+                        if (random.nextBoolean()) {
+                              assertEquals(single.getNextValue(), bulk.getNextValue());
+                              taken++;
+                              continue;
+                        }
+
+                        /*
+                         * Up to a few blocks at an offset, so the copy crosses regenerations.
+                         */
+                        final int length = random.nextInt(3 * IsaacRandom.SIZE);
+                        final int[] expected = new int[length];
+                        final int[] values = new int[length + 3];
+
+                        for (int index = 0; index < length; index++) {
+                              expected[index] = single.getNextValue();
+                        }
+                        bulk.getNextValues(values, 3, length);
+
+                        final int[] copied = new int[length];
+                        System.arraycopy(values, 3, copied, 0, length);
+                        assertArrayEquals(expected, copied);
+                        taken += length;
+                  }
+            }
+      }
+}
@@ -0,0 +1,73 @@
+package test.astraeus.utility;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import main.astraeus.utility.LongUtils;
+
+/**
+ * Checks the names players can log in with never share a base-37 encoding, unless they differ
+ * only in case or in the choice of a space or an underscore.
+ */
+public final class LongUtilsTest {
+
+      /**
+       * The characters names are made of.
+       */
+      private static final String CHARACTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 _";
+
+      @Test
+      public void namesThatLoseCharactersAreRefused() {
+            for (String name : new String[] {"", "a!b", "bob.", "_bob", "bob_", " bob", "bob ", "böb", "thirteenchars"}) {
+                  assertFalse("'" + name + "'", LongUtils.isEncodable(name));
+            }
+
+            for (String name : new String[] {"b", "bob", "Bob_2", "a b", "a__b", "twelve chars"}) {
+                  assertTrue("'" + name + "'", LongUtils.isEncodable(name));
+            }
+      }
+
+      @Test
+      public void encodableNamesDontCollide() {
+            final Random random = new Random(37);
+            final Map<Long, String> names = new HashMap<>();
+
+            for (int count = 0; count < 200_000; count++) {
+                  final char[] characters = new char[1 + random.nextInt(12)];
+
+                  for (int index = 0; index < characters.length; index++) {
+                        characters[index] = CHARACTERS.charAt(random.nextInt(CHARACTERS.length()));
+                  }
+
+                  final String name = new String(characters);
+
+                  if (!LongUtils.isEncodable(name)) {
+                        continue;
+                  }
+
+                  final String canonical = name.toLowerCase(Locale.ROOT).replace('_', ' ');
+                  final String previous = names.putIfAbsent(LongUtils.convertStringToLong(name), canonical);
+
+                  if (previous != null) {
+                        assertEquals(previous, canonical);
+                  }
+            }
+      }
+
+      @Test
+      public void separatorsAtTheEndsWouldCollide() {
+            assertEquals(LongUtils.convertStringToLong("bob"), LongUtils.convertStringToLong("bob_"));
+            assertEquals(LongUtils.convertStringToLong("bob"), LongUtils.convertStringToLong("_bob"));
+            assertEquals(LongUtils.convertStringToLong("a b"), LongUtils.convertStringToLong("a!b"));
+            assertNotEquals(LongUtils.convertStringToLong("a b"), LongUtils.convertStringToLong("ab"));
+      }
+}